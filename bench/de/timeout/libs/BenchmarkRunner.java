@@ -0,0 +1,36 @@
+package de.timeout.libs;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line options.
+ * The results are written as JSON into {@value #DEFAULT_RESULT} unless another result file or format is given,
+ * so they can be compared between two builds.
+ * @author Timeout
+ *
+ */
+public final class BenchmarkRunner {
+	
+	private static final String DEFAULT_RESULT = "jmh-result.json";
+	
+	private BenchmarkRunner() {
+		/* Main-Class does not need an instance */
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+		
+		// write json results by default
+		if(!cmd.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+		if(!cmd.getResult().hasValue()) options.result(DEFAULT_RESULT);
+		
+		new Runner(options.build()).run();
+	}
+}
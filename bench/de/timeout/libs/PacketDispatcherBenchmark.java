@@ -0,0 +1,81 @@
+package de.timeout.libs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares sending one packet to many players with one task per player like {@link Players#sendPacket(org.bukkit.entity.Player, Object)}
+ * and with batched tasks like {@link Players#broadcastPacket(java.util.Collection, Object)}.
+ * Writing a packet into a connection is simulated by a fixed amount of work, so the benchmark runs without a server.
+ * Every invocation waits until all recipients have received the packet.
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacketDispatcherBenchmark {
+	
+	/**
+	 * Simulated cost of writing a packet into a connection
+	 */
+	private static final long SEND_TOKENS = 100;
+	
+	@Param({"50", "200", "500"})
+	private int recipients;
+	
+	private PacketDispatcher dispatcher;
+	private List<Object> players;
+	
+	@Setup
+	public void setup() {
+		dispatcher = new PacketDispatcher(4, 8192, PacketDispatcher.OverflowPolicy.BLOCK);
+		players = new ArrayList<>(recipients);
+		for(int i = 0; i < recipients; i++) players.add(new Object());
+	}
+	
+	@TearDown
+	public void tearDown() {
+		dispatcher.shutdown();
+	}
+	
+	@Benchmark
+	public void perPlayer() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(recipients);
+		for(Object player : players) {
+			dispatcher.dispatch(() -> send(player, latch));
+		}
+		latch.await();
+	}
+	
+	@Benchmark
+	public void batched() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(recipients);
+		dispatcher.dispatch(players, Players.BROADCAST_BATCH_SIZE, player -> send(player, latch));
+		latch.await();
+	}
+	
+	private static void send(Object player, CountDownLatch latch) {
+		Blackhole.consumeCPU(SEND_TOKENS);
+		latch.countDown();
+	}
+}
@@ -0,0 +1,71 @@
+package de.timeout.libs;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the reflective field access in {@link Reflections} compared to a cached {@link FieldAccessor}
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectionsBenchmark {
+	
+	private Target target;
+	private Field field;
+	private FieldAccessor accessor;
+	private int value;
+	
+	@Setup
+	public void setup() {
+		target = new Target();
+		field = Reflections.getField(Target.class, "value");
+		accessor = FieldAccessor.of(field);
+	}
+	
+	@Benchmark
+	public Object getValue() {
+		return Reflections.getValue(field, target);
+	}
+	
+	@Benchmark
+	public void setValue() {
+		Reflections.setValue(field, target, value++);
+	}
+	
+	@Benchmark
+	public Object accessorGet() {
+		return accessor.get(target);
+	}
+	
+	@Benchmark
+	public void accessorSet() {
+		accessor.set(target, value++);
+	}
+	
+	/**
+	 * Class with a private field like a NMS-Class
+	 * @author Timeout
+	 *
+	 */
+	private static final class Target {
+		
+		private int value;
+	}
+}
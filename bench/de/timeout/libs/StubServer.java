@@ -0,0 +1,94 @@
+package de.timeout.libs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+
+/**
+ * Minimal {@link Server} for benchmarks which run without a Minecraft server.
+ * It only answers the calls the serialization of Bukkit objects needs. Every other method returns null, false or zero.
+ * @author Timeout
+ *
+ */
+public final class StubServer {
+	
+	/**
+	 * Data version of Minecraft 1.16.3
+	 */
+	private static final int DATA_VERSION = 2580;
+	
+	private static final Logger LOGGER = Logger.getLogger("Benchmark");
+	
+	private StubServer() {
+		/* Util-Class does not need an instance */
+	}
+	
+	/**
+	 * Registers the stub as Bukkit server. Does nothing if a server is already registered
+	 */
+	public static synchronized void install() {
+		if(Bukkit.getServer() == null) {
+			UnsafeValues unsafe = stub(UnsafeValues.class, (proxy, method, args) -> {
+				switch(method.getName()) {
+				case "getDataVersion":
+					return DATA_VERSION;
+				case "getMaterial":
+					return Material.getMaterial((String) args[0]);
+				case "fromLegacy":
+					return method.getReturnType().isInstance(args[0]) ? args[0] : null;
+				default:
+					return defaultValue(proxy, method, args);
+				}
+			});
+			
+			Bukkit.setServer(stub(Server.class, (proxy, method, args) -> {
+				switch(method.getName()) {
+				case "getLogger":
+					return LOGGER;
+				case "getUnsafe":
+					return unsafe;
+				case "getName":
+					return "StubServer";
+				default:
+					return defaultValue(proxy, method, args);
+				}
+			}));
+		}
+	}
+	
+	private static <T> T stub(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[] {type}, handler));
+	}
+	
+	private static Object defaultValue(Object proxy, Method method, Object[] args) {
+		// object methods
+		if(method.getDeclaringClass() == Object.class) {
+			switch(method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return "Stub of " + proxy.getClass().getInterfaces()[0].getSimpleName();
+			}
+		}
+		
+		// default values of primitives
+		Class<?> type = method.getReturnType();
+		if(type == boolean.class) return false;
+		if(type == char.class) return '\0';
+		if(type == byte.class) return (byte) 0;
+		if(type == short.class) return (short) 0;
+		if(type == int.class) return 0;
+		if(type == long.class) return 0L;
+		if(type == float.class) return 0F;
+		if(type == double.class) return 0D;
+		return null;
+	}
+}
@@ -0,0 +1,40 @@
+package de.timeout.libs.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the conversion of Minecraft-ColorCodes into ANSI-Colors in {@link ColoredLogger}
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColoredLoggerBenchmark {
+	
+	@Param({
+		"Plugin enabled without any colors",
+		"&8[&6Plugin&8] &7Loaded &e42 &7configurations in &a12 &7ms",
+		"&c&lError&r&7: &4Unable to load &e&nconfig.yml&r&7. Using &adefaults &7instead"
+	})
+	private String message;
+	
+	@Benchmark
+	public String convertStringMessage() {
+		return ColoredLogger.convertStringMessage(message, '&');
+	}
+}
@@ -0,0 +1,56 @@
+package de.timeout.libs.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the parsing of Json-Configurations in {@link JsonConfig}
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonConfigBenchmark {
+	
+	/**
+	 * Number of sections in the configuration
+	 */
+	@Param({"10", "100"})
+	private int sections;
+	
+	private String json;
+	
+	@Setup
+	public void setup() {
+		StringBuilder builder = new StringBuilder("{\"prefix\":\"&8[&6Plugin&8]\",\"debug\":false,\"arenas\":{");
+		for(int i = 0; i < sections; i++) {
+			if(i > 0) builder.append(',');
+			builder.append(String.format("\"arena%d\":{\"enabled\":true,\"world\":\"world_%d\",\"players\":[2,%d],"
+					+ "\"spawn\":{\"x\":%.2f,\"y\":64.0,\"z\":%.2f}}", i, i, 8 + i % 8, i * 16.5D, i * -8.25D));
+		}
+		json = builder.append("}}").toString();
+	}
+	
+	@Benchmark
+	public JsonConfig loadFromString() throws InvalidConfigurationException {
+		JsonConfig config = new JsonConfig("");
+		config.loadFromString(json);
+		return config;
+	}
+}
@@ -0,0 +1,86 @@
+package de.timeout.libs.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the comment preserving merge in {@link MyersDiffUtils} like {@link UTFConfig} uses it while saving.
+ * The original file is a commented plugin configuration, the dump is the same configuration written by SnakeYAML with some changed values.
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MyersDiffUtilsBenchmark {
+	
+	/**
+	 * Number of sections in the configuration
+	 */
+	@Param({"10", "100"})
+	private int sections;
+	
+	private List<String> original;
+	private String dump;
+	
+	@Setup
+	public void setup() throws InvalidConfigurationException {
+		String yaml = createConfiguration(sections);
+		original = Arrays.asList(yaml.split("\n"));
+		
+		// load configuration and change every third section
+		YamlConfiguration config = new YamlConfiguration();
+		config.loadFromString(yaml);
+		for(int i = 0; i < sections; i += 3) config.set("arenas.arena" + i + ".enabled", false);
+		dump = config.saveToString();
+	}
+	
+	@Benchmark
+	public String diff3() {
+		return MyersDiffUtils.diff3(original, dump);
+	}
+	
+	private static String createConfiguration(int sections) {
+		List<String> lines = new ArrayList<>();
+		lines.add("# Configuration of the plugin");
+		lines.add("# Reload the server after changing any value");
+		lines.add("prefix: '&8[&6Plugin&8]'");
+		lines.add("debug: false # only enable this if you report a bug");
+		lines.add("");
+		lines.add("# all arenas of the server");
+		lines.add("arenas:");
+		for(int i = 0; i < sections; i++) {
+			lines.add("  # arena number " + i);
+			lines.add("  arena" + i + ":");
+			lines.add("    enabled: true");
+			lines.add("    world: world_" + i + " # the world must be loaded");
+			lines.add("    min-players: 2");
+			lines.add("    max-players: " + (8 + i % 8));
+			lines.add("    spawn:");
+			lines.add("      x: " + (i * 16.5D));
+			lines.add("      y: 64.0");
+			lines.add("      z: " + (i * -8.25D));
+			lines.add("");
+		}
+		return String.join("\n", lines);
+	}
+}
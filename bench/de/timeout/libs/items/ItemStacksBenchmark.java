@@ -0,0 +1,54 @@
+package de.timeout.libs.items;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.timeout.libs.StubServer;
+
+/**
+ * Benchmarks of the Base64-Serialization in {@link ItemStacks}.
+ * ItemMetas need a running server, so the items have no meta.
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemStacksBenchmark {
+	
+	private ItemStack item;
+	private String base64;
+	
+	@Setup
+	public void setup() {
+		StubServer.install();
+		
+		item = new ItemStack(Material.DIAMOND_SWORD, 1);
+		base64 = ItemStacks.encodeBase64(item);
+	}
+	
+	@Benchmark
+	public String encodeBase64() {
+		return ItemStacks.encodeBase64(item);
+	}
+	
+	@Benchmark
+	public ItemStack decodeBase64() {
+		return ItemStacks.decodeBase64(base64);
+	}
+}
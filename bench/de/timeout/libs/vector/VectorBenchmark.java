@@ -0,0 +1,77 @@
+package de.timeout.libs.vector;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the rotations, normalization and distances of {@link Vector}.
+ * Rotations keep the length of the vector, so the same vector is rotated in every invocation.
+ * @author Timeout
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VectorBenchmark {
+	
+	private static final double ANGLE = Math.PI / 7D;
+	
+	private Vector vector;
+	private Vector other;
+	private Vector axis;
+	
+	@Setup
+	public void setup() {
+		vector = new Vector(3.5D, -1.25D, 7D);
+		other = new Vector(-12D, 64D, 0.5D);
+		axis = new Vector(1D, 1D, 0D);
+	}
+	
+	@Benchmark
+	public Vector rotateAroundX() {
+		return vector.rotateAroundX(ANGLE);
+	}
+	
+	@Benchmark
+	public Vector rotateAroundY() {
+		return vector.rotateAroundY(ANGLE);
+	}
+	
+	@Benchmark
+	public Vector rotateAroundZ() {
+		return vector.rotateAroundZ(ANGLE);
+	}
+	
+	@Benchmark
+	public Vector rotateAroundAxis() {
+		return vector.rotateAroundAxis(axis, ANGLE);
+	}
+	
+	@Benchmark
+	public Vector normalize() {
+		return other.clone().normalize();
+	}
+	
+	@Benchmark
+	public double distance() {
+		return vector.distance(other);
+	}
+	
+	@Benchmark
+	public double distanceSquared() {
+		return vector.distanceSquared(other);
+	}
+}
@@ -1,18 +1,51 @@
 package de.timeout.libs;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.lang.ClassUtils;
+import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class BukkitReflections {
 	
 	private static final String VERSION = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+	
+	private static final String NMS_PREFIX = "net.minecraft.server." + VERSION + ".";
+	private static final String CRAFTBUKKIT_PREFIX = "org.bukkit.craftbukkit." + VERSION + ".";
+	private static final String NMS_ARRAY_PREFIX = "[L" + NMS_PREFIX;
+	private static final String CRAFTBUKKIT_ARRAY_PREFIX = "[L" + CRAFTBUKKIT_PREFIX;
+	private static final String ARRAY_SUFFIX = ";";
+	
+	/**
+	 * Caches of all resolved classes. Classes which could not be found are cached as well.
+	 * All classes are keyed by their short name to avoid building the full name on every lookup
+	 */
+	private static final Map<String, CachedClass> nmsCache = new ConcurrentHashMap<>();
+	private static final Map<String, CachedClass> craftbukkitCache = new ConcurrentHashMap<>();
+	private static final Map<String, CachedClass> nmsArrayCache = new ConcurrentHashMap<>();
+	private static final Map<String, CachedClass> craftbukkitArrayCache = new ConcurrentHashMap<>();
 
 	private BukkitReflections() {
 		/* Bukkit-Reflections does not need a Constructor */
 	}
+	
+	/**
+	 * Returns the version of the running server, for example v1_16_R2
+	 * @return the version of the server
+	 */
+	@NotNull
+	public static String getVersion() {
+		return VERSION;
+	}
 
 	/**
 	 * This method return an NMS-Class, which has a certain name
@@ -20,7 +53,7 @@ public final class BukkitReflections {
 	 * @return the CLass itself. Null if the class cannot be found.
 	 */
 	public static Class<?> getNMSClass(String nmsClass) {
-		return loadClass("net.minecraft.server.%s.%s", nmsClass);
+		return loadClass(nmsCache, NMS_PREFIX, "", nmsClass);
 	}
 	
 	/**
@@ -33,7 +66,7 @@ public final class BukkitReflections {
 	 * @return the Array Type of the NMS-Class. Null if the class cannot be found
 	 */
 	public static Class<?> getNMSArrayTypeClass(String nmsClass) {
-		return loadClass("[Lnet.minecraft.server.%s.%s;", nmsClass);
+		return loadClass(nmsArrayCache, NMS_ARRAY_PREFIX, ARRAY_SUFFIX, nmsClass);
 	}
 
 	/**
@@ -42,7 +75,7 @@ public final class BukkitReflections {
 	 * @return the CraftBukkit-Class. Null if the class cannot be found
 	 */
 	public static Class<?> getCraftBukkitClass(String clazz) {
-		return loadClass("org.bukkit.craftbukkit.%s.%s", clazz);
+		return loadClass(craftbukkitCache, CRAFTBUKKIT_PREFIX, "", clazz);
 	}
 	
 	/**
@@ -55,16 +88,134 @@ public final class BukkitReflections {
 	 * @return the array type of the CraftBukkit-Class. Null if the class cannot be found
 	 */
 	public static Class<?> getCraftBukkitArrayTypeClass(String clazz) {
-		return loadClass("[Lorg.bukkit.craftbukkit.%s.%s;", clazz);
+		return loadClass(craftbukkitArrayCache, CRAFTBUKKIT_ARRAY_PREFIX, ARRAY_SUFFIX, clazz);
+	}
+	
+	/**
+	 * Returns a field of an NMS- or CraftBukkit-Class. The name of the field is resolved with {@link NMSMappings}
+	 * @param clazz the name of the class. Names containing a '.' are CraftBukkit-Classes
+	 * @param member the logical name of the field
+	 * @return the field or null if the field cannot be found
+	 */
+	@Nullable
+	public static Field getField(@NotNull String clazz, @NotNull String member) {
+		return NMSMappings.getField(clazz, member);
+	}
+	
+	/**
+	 * Returns a method of an NMS- or CraftBukkit-Class. The name of the method is resolved with {@link NMSMappings}
+	 * @param clazz the name of the class. Names containing a '.' are CraftBukkit-Classes
+	 * @param member the logical name of the method
+	 * @param params the parameters of the method
+	 * @return the method or null if the method cannot be found
+	 */
+	@Nullable
+	public static Method getMethod(@NotNull String clazz, @NotNull String member, Class<?>... params) {
+		return NMSMappings.getMethod(clazz, member, params);
+	}
+	
+	/**
+	 * Resolves a bundle of classes in parallel and stores them in the cache.
+	 * Call this method while your plugin enables to remove the class lookups from later hot paths.
+	 * 
+	 * Names which contain a '.' are handled as CraftBukkit-Classes (for example "entity.CraftPlayer"),
+	 * all other names are handled as NMS-Classes (for example "PlayerConnection")
+	 * 
+	 * @param names the names of the classes
+	 * @return a future which completes after all classes are resolved
+	 * @throws IllegalArgumentException if names is null
+	 */
+	@NotNull
+	public static CompletableFuture<Void> preload(@NotNull String... names) {
+		// Validate
+		Validate.notNull(names, "Names cannot be null");
+		
+		return CompletableFuture.runAsync(() -> Arrays.stream(names)
+				.parallel()
+				.forEach(name -> {
+					if(name.indexOf('.') != -1) {
+						getCraftBukkitClass(name);
+					} else getNMSClass(name);
+				}));
+	}
+	
+	/**
+	 * Binds an interface annotated with {@link NMSClass} to its NMS- or CraftBukkit-Class.
+	 * Version dependent names in {@link Remap} are applied for the running server version.
+	 * @param type the interface you want to bind. Cannot be null
+	 * @return the binding of the interface
+	 * @throws IllegalArgumentException if the type is not an annotated interface
+	 * @throws IllegalStateException if the class or at least one method could not be resolved
+	 */
+	@NotNull
+	public static <T> ReflectiveBinding<T> bind(@NotNull Class<T> type) {
+		// Validate
+		Validate.notNull(type, "Interface cannot be null");
+		NMSClass mapping = type.getAnnotation(NMSClass.class);
+		Validate.notNull(mapping, type.getName() + " is not annotated with @NMSClass");
+		
+		// get target class
+		Class<?> target = mapping.craftbukkit() ? getCraftBukkitClass(mapping.value()) : getNMSClass(mapping.value());
+		if(target == null) throw new IllegalStateException("Unable to bind " + type.getName() + ". Class " + mapping.value() + " does not exist");
+		
+		return ReflectiveBinding.create(type, target, VERSION);
+	}
+	
+	private static Class<?> loadClass(Map<String, CachedClass> cache, String prefix, String suffix, String name) {
+		// skip instrumentation if it is disabled
+		if(!ReflectionMetrics.isEnabled()) return lookUpClass(cache, prefix, suffix, name).clazz;
+		
+		long start = System.nanoTime();
+		CachedClass cached = lookUpClass(cache, prefix, suffix, name);
+		cached.counter().record(start, cached.clazz == null);
+		return cached.clazz;
+	}
+	
+	private static CachedClass lookUpClass(Map<String, CachedClass> cache, String prefix, String suffix, String name) {
+		// get from cache. The full name is only built on a miss
+		CachedClass cached = cache.get(name);
+		return cached != null ? cached : cache.computeIfAbsent(name, key -> resolveClass(prefix + key + suffix));
 	}
 	
-	private static Class<?> loadClass(String packagename, String clazz) {
-		String name = String.format(packagename, VERSION, clazz);
+	private static CachedClass resolveClass(String name) {
 		try {
-			return ClassUtils.getClass(name);
+			return new CachedClass(name, ClassUtils.getClass(name));
 		} catch (ClassNotFoundException e) {
+			// a miss is cached as well, so it is only logged once
 			Logger.getGlobal().log(Level.WARNING, e, () ->"Could not find Class " + name);
 		}
-		return null;
+		return new CachedClass(name, null);
+	}
+	
+	/**
+	 * A resolved class with the counter of its lookups
+	 * @author Timeout
+	 *
+	 */
+	private static final class CachedClass {
+		
+		private final String name;
+		private final @Nullable Class<?> clazz;
+		
+		private ReflectionMetrics.Counter counter;
+		
+		private CachedClass(String name, @Nullable Class<?> clazz) {
+			this.name = name;
+			this.clazz = clazz;
+		}
+		
+		/**
+		 * Returns the counter of this class. It is created on first use, so classes are not listed while metrics are disabled
+		 * @return the counter
+		 */
+		private ReflectionMetrics.Counter counter() {
+			ReflectionMetrics.Counter current = counter;
+			if(current == null) {
+				// the counter of a name is unique, so a race only looks it up twice
+				current = ReflectionMetrics.counter("class " + name);
+				counter = current;
+			}
+			return current;
+		}
 	}
 }
@@ -0,0 +1,212 @@
+package de.timeout.libs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a precompiled copy of several fields of a class.
+ * Every field is resolved only once into a {@link MethodHandle} which reads the field of the source and writes it into the target
+ * without boxing, so {@link CopyPlan#copy(Object, Object)} runs through all fields in one loop without any allocation.
+ * Plans are immutable and thread-safe. Keep them in a constant instead of creating them for every copy.
+ * @author Timeout
+ *
+ */
+public final class CopyPlan {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Class<?> owner;
+	private final Field[] fields;
+	private final MethodHandle[] copiers;
+	private final MethodHandle[] getters;
+	private final MethodHandle[] setters;
+
+	private CopyPlan(Class<?> owner, List<Field> fields) {
+		this.owner = owner;
+		this.fields = fields.toArray(new Field[0]);
+		this.copiers = new MethodHandle[this.fields.length];
+		this.getters = new MethodHandle[this.fields.length];
+		this.setters = new MethodHandle[this.fields.length];
+
+		// compile fields
+		for(int i = 0; i < this.fields.length; i++) {
+			Field field = this.fields[i];
+			try {
+				field.setAccessible(true);
+				MethodHandle get = LOOKUP.unreflectGetter(field);
+				MethodHandle set = LOOKUP.unreflectSetter(field);
+
+				// (target, source) -> target.field = source.field with the exact field type
+				copiers[i] = MethodHandles.filterArguments(set, 1, get.asType(MethodType.methodType(field.getType(), field.getDeclaringClass())))
+						.asType(COPY_TYPE);
+				getters[i] = get.asType(GETTER_TYPE);
+				setters[i] = set.asType(SETTER_TYPE);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access field " + field.getName() + " in " + owner.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Creates a plan which copies certain fields of a class
+	 * @param clazz the class which contains the fields. Cannot be null
+	 * @param names the names of the fields. Fields of superclasses are supported
+	 * @return the plan
+	 * @throws IllegalArgumentException if a field cannot be found or is static
+	 * @throws IllegalStateException if a field cannot be accessed
+	 */
+	@NotNull
+	public static CopyPlan of(@NotNull Class<?> clazz, @NotNull String... names) {
+		// Validate
+		Validate.notNull(clazz, "Class cannot be null");
+		Validate.noNullElements(names, "Names of fields cannot be null");
+
+		List<Field> fields = new ArrayList<>(names.length);
+		for(String name : names) {
+			Field field = Reflections.getField(clazz, name);
+			// Validate field
+			Validate.notNull(field, String.format("Unable to find field %s in %s", name, clazz.getName()));
+			Validate.isTrue(!Modifier.isStatic(field.getModifiers()), String.format("Field %s in %s is static", name, clazz.getName()));
+
+			fields.add(field);
+		}
+		return new CopyPlan(clazz, fields);
+	}
+
+	/**
+	 * Creates a plan which copies all non-static and non-synthetic fields of a class and its superclasses, final fields included
+	 * @param clazz the class you want to copy. Cannot be null
+	 * @return the plan
+	 * @throws IllegalStateException if a field cannot be accessed
+	 */
+	@NotNull
+	public static CopyPlan allFields(@NotNull Class<?> clazz) {
+		// Validate
+		Validate.notNull(clazz, "Class cannot be null");
+
+		List<Field> fields = new ArrayList<>();
+		// run through class hierarchy
+		for(Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+			for(Field field : type.getDeclaredFields()) {
+				if(!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) fields.add(field);
+			}
+		}
+		return new CopyPlan(clazz, fields);
+	}
+
+	/**
+	 * Copies all fields of this plan from one object into another
+	 * @param source the object you want to read. Cannot be null
+	 * @param target the object you want to modify. Cannot be null
+	 * @throws IllegalArgumentException if an object is not an instance of the class of this plan
+	 * @throws IllegalStateException if a field cannot be copied
+	 */
+	public void copy(@NotNull Object source, @NotNull Object target) {
+		// Validate
+		validate(source);
+		validate(target);
+
+		for(int i = 0; i < copiers.length; i++) {
+			try {
+				copiers[i].invokeExact(target, source);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Unable to copy field " + fields[i].getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Reads all fields of this plan into a new array. Use {@link CopyPlan#snapshot(Object, Object[])} to reuse an array
+	 * @param source the object you want to read. Cannot be null
+	 * @return the values of the fields in the order of {@link CopyPlan#getFields()}
+	 * @throws IllegalArgumentException if the object is not an instance of the class of this plan
+	 */
+	@NotNull
+	public Object[] snapshot(@NotNull Object source) {
+		return snapshot(source, new Object[fields.length]);
+	}
+
+	/**
+	 * Reads all fields of this plan into an existing array
+	 * @param source the object you want to read. Cannot be null
+	 * @param values the array which stores the values. Must have at least the size of {@link CopyPlan#size()}
+	 * @return the array with the values of the fields in the order of {@link CopyPlan#getFields()}
+	 * @throws IllegalArgumentException if the object is not an instance of the class of this plan or the array is too small
+	 */
+	@NotNull
+	public Object[] snapshot(@NotNull Object source, @NotNull Object[] values) {
+		// Validate
+		validate(source);
+		Validate.isTrue(values != null && values.length >= fields.length, "Array must have at least the size of the plan");
+
+		for(int i = 0; i < getters.length; i++) {
+			try {
+				values[i] = (Object) getters[i].invokeExact(source);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Unable to read field " + fields[i].getName(), e);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Writes the values of a snapshot into an object
+	 * @param target the object you want to modify. Cannot be null
+	 * @param values the values created by {@link CopyPlan#snapshot(Object)}. Cannot be null
+	 * @throws IllegalArgumentException if the object is not an instance of the class of this plan or the array is too small
+	 * @throws ClassCastException if a value does not match the type of its field
+	 */
+	public void restore(@NotNull Object target, @NotNull Object[] values) {
+		// Validate
+		validate(target);
+		Validate.isTrue(values != null && values.length >= fields.length, "Array must have at least the size of the plan");
+
+		for(int i = 0; i < setters.length; i++) {
+			try {
+				setters[i].invokeExact(target, values[i]);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Unable to write field " + fields[i].getName(), e);
+			}
+		}
+	}
+
+	private void validate(Object obj) {
+		Validate.isTrue(owner.isInstance(obj), "Object must be an instance of " + owner.getName());
+	}
+
+	/**
+	 * Returns the number of fields in this plan
+	 * @return the number of fields
+	 */
+	public int size() {
+		return fields.length;
+	}
+
+	/**
+	 * Returns the fields of this plan in the order they are copied
+	 * @return an unmodifiable list of the fields
+	 */
+	@NotNull
+	public List<Field> getFields() {
+		return Collections.unmodifiableList(Arrays.asList(fields));
+	}
+}
@@ -0,0 +1,207 @@
+package de.timeout.libs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a cached read and write access to a field.
+ * The field is resolved only once into {@link MethodHandle}s, so every access afterwards
+ * costs about as much as a direct field access.
+ * @author Timeout
+ *
+ */
+public final class FieldAccessor {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final Map<Field, FieldAccessor> fieldCache = new ConcurrentHashMap<>();
+	private static final Map<MemberKey, FieldAccessor> nameCache = new ConcurrentHashMap<>();
+
+	private final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	private final ReflectionMetrics.Counter counter;
+
+	private FieldAccessor(Field field) throws IllegalAccessException {
+		this.field = field;
+		this.counter = ReflectionMetrics.counter(field.getDeclaringClass().getName() + "#" + field.getName());
+		field.setAccessible(true);
+
+		// create getter. Static getters ignore the target
+		MethodHandle get = LOOKUP.unreflectGetter(field);
+		if(Modifier.isStatic(field.getModifiers())) get = MethodHandles.dropArguments(get, 0, Object.class);
+		this.getter = get.asType(GETTER_TYPE);
+
+		// create setter. Static final fields cannot be written
+		MethodHandle set = null;
+		try {
+			set = LOOKUP.unreflectSetter(field);
+			if(Modifier.isStatic(field.getModifiers())) set = MethodHandles.dropArguments(set, 0, Object.class);
+			set = set.asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			Logger.getGlobal().log(Level.FINE, e, () -> "Field " + field.getName() + " is read-only");
+		}
+		this.setter = set;
+	}
+
+	/**
+	 * Returns the cached accessor of a field. The accessor will be created if it does not exist yet
+	 * @param field the field you want to access. Cannot be null
+	 * @return the accessor of the field
+	 * @throws IllegalArgumentException if the field is null
+	 * @throws IllegalStateException if the field cannot be accessed
+	 */
+	@NotNull
+	public static FieldAccessor of(@NotNull Field field) {
+		// Validate
+		Validate.notNull(field, "Field cannot be null");
+
+		FieldAccessor accessor = fieldCache.get(field);
+		return accessor != null ? accessor : fieldCache.computeIfAbsent(field, FieldAccessor::create);
+	}
+
+	/**
+	 * Returns the cached accessor of a field with a certain name
+	 * @param clazz the class which contains the field. Cannot be null
+	 * @param name the name of the field. Cannot be null
+	 * @return the accessor of the field or null if the field could not be found
+	 */
+	@Nullable
+	public static FieldAccessor of(@NotNull Class<?> clazz, @NotNull String name) {
+		// Validate
+		Validate.notNull(clazz, "Class cannot be null");
+		Validate.notNull(name, "Name of field cannot be null");
+
+		MemberKey key = new MemberKey(clazz, name);
+		FieldAccessor accessor = nameCache.get(key);
+		// resolve field if accessor is not cached
+		if(accessor == null) {
+			Field field = Reflections.getField(clazz, name);
+			if(field != null) {
+				accessor = of(field);
+				nameCache.putIfAbsent(key, accessor);
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Searches through a bundle of names until it founds the field and returns its accessor.
+	 * @param clazz the class which contains the field. Cannot be null
+	 * @param names the different names of the field. NMS-Fieldnames may changes in different versions
+	 * @return the accessor of the field or null if no field could be found
+	 */
+	@Nullable
+	public static FieldAccessor of(@NotNull Class<?> clazz, String... names) {
+		for(String name : names) {
+			FieldAccessor accessor = of(clazz, name);
+			if(accessor != null) return accessor;
+		}
+		return null;
+	}
+
+	private static FieldAccessor create(Field field) {
+		try {
+			return new FieldAccessor(field);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Unable to access field " + field.getName(), e);
+		}
+	}
+
+	/**
+	 * Returns the value of the field in a certain object
+	 * @param target the object you want to read. Ignored for static fields
+	 * @return the value of the field
+	 */
+	@Nullable
+	public Object get(@Nullable Object target) {
+		// skip instrumentation if it is disabled
+		if(!ReflectionMetrics.isEnabled()) return read(target);
+		
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object value = read(target);
+			failed = false;
+			return value;
+		} finally {
+			counter.record(start, failed);
+		}
+	}
+	
+	private Object read(Object target) {
+		try {
+			return (Object) getter.invokeExact(target);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Unable to read field " + field.getName(), e);
+		}
+	}
+
+	/**
+	 * Writes a value into the field of a certain object
+	 * @param target the object you want to modify. Ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalStateException if the field is read-only
+	 */
+	public void set(@Nullable Object target, @Nullable Object value) {
+		// skip instrumentation if it is disabled
+		if(!ReflectionMetrics.isEnabled()) {
+			write(target, value);
+			return;
+		}
+		
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			write(target, value);
+			failed = false;
+		} finally {
+			counter.record(start, failed);
+		}
+	}
+	
+	private void write(Object target, Object value) {
+		// check if field is writable
+		if(setter != null) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Unable to write field " + field.getName(), e);
+			}
+		} else throw new IllegalStateException("Field " + field.getName() + " is read-only");
+	}
+
+	/**
+	 * Checks if the field can be modified with {@link FieldAccessor#set(Object, Object)}
+	 * @return true if the field is writable, false otherwise
+	 */
+	public boolean isWritable() {
+		return setter != null;
+	}
+
+	/**
+	 * Returns the field of this accessor
+	 * @return the field itself
+	 */
+	@NotNull
+	public Field getField() {
+		return field;
+	}
+}
@@ -0,0 +1,47 @@
+package de.timeout.libs;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Identifies a member of a class by its owner, its name and its parameter types.
+ * Used as key for the caches of {@link FieldAccessor} and {@link MethodInvoker}
+ * @author Timeout
+ *
+ */
+final class MemberKey {
+
+	private final Class<?> owner;
+	private final String name;
+	private final Class<?>[] params;
+	private final int hash;
+
+	MemberKey(Class<?> owner, String name, Class<?>... params) {
+		this.owner = owner;
+		this.name = name;
+		this.params = params;
+		this.hash = 31 * (31 * owner.hashCode() + Objects.hashCode(name)) + Arrays.hashCode(params);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof MemberKey))
+			return false;
+		MemberKey other = (MemberKey) obj;
+		return owner == other.owner && Objects.equals(name, other.name) && Arrays.equals(params, other.params);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return params.length > 0 ? String.format("%s#%s(%s)", owner.getName(), name,
+				String.join(", ", Arrays.stream(params).map(Class::getName).toArray(String[]::new))) :
+			owner.getName() + "#" + name;
+	}
+}
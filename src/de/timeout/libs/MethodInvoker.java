@@ -0,0 +1,196 @@
+package de.timeout.libs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a cached invocation of a method or a constructor.
+ * The member is resolved only once into a {@link MethodHandle} with a generic signature,
+ * so every invocation afterwards avoids the access checks and boxing of {@link Method#invoke(Object, Object...)}
+ * @author Timeout
+ *
+ */
+public final class MethodInvoker {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final Map<Method, MethodInvoker> methodCache = new ConcurrentHashMap<>();
+	private static final Map<Constructor<?>, MethodInvoker> constructorCache = new ConcurrentHashMap<>();
+	private static final Map<MemberKey, MethodInvoker> nameCache = new ConcurrentHashMap<>();
+
+	private final String name;
+	private final int parameterCount;
+	private final MethodHandle handle;
+	private final ReflectionMetrics.Counter counter;
+
+	private MethodInvoker(MemberKey member, String name, MethodHandle handle, boolean hasReceiver) {
+		this.name = name;
+		this.parameterCount = handle.type().parameterCount() - (hasReceiver ? 1 : 0);
+		// overloads have different parameter types, so they are counted separately
+		this.counter = ReflectionMetrics.counter(member.toString());
+
+		// static members and constructors ignore the target
+		MethodHandle generic = hasReceiver ? handle : MethodHandles.dropArguments(handle, 0, Object.class);
+		// convert into (Object, Object[])Object
+		this.handle = generic.asType(MethodType.genericMethodType(parameterCount + 1))
+				.asSpreader(Object[].class, parameterCount);
+	}
+
+	/**
+	 * Returns the cached invoker of a method. The invoker will be created if it does not exist yet
+	 * @param method the method you want to invoke. Cannot be null
+	 * @return the invoker of the method
+	 * @throws IllegalArgumentException if the method is null
+	 * @throws IllegalStateException if the method cannot be accessed
+	 */
+	@NotNull
+	public static MethodInvoker of(@NotNull Method method) {
+		// Validate
+		Validate.notNull(method, "Method cannot be null");
+
+		MethodInvoker invoker = methodCache.get(method);
+		return invoker != null ? invoker : methodCache.computeIfAbsent(method, key -> {
+			try {
+				key.setAccessible(true);
+				return new MethodInvoker(new MemberKey(key.getDeclaringClass(), key.getName(), key.getParameterTypes()), key.getName(), LOOKUP.unreflect(key), !Modifier.isStatic(key.getModifiers()));
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access method " + key.getName(), e);
+			}
+		});
+	}
+
+	/**
+	 * Returns the cached invoker of a constructor. The invoker will be created if it does not exist yet
+	 * @param constructor the constructor you want to invoke. Cannot be null
+	 * @return the invoker of the constructor
+	 * @throws IllegalArgumentException if the constructor is null
+	 * @throws IllegalStateException if the constructor cannot be accessed
+	 */
+	@NotNull
+	public static MethodInvoker of(@NotNull Constructor<?> constructor) {
+		// Validate
+		Validate.notNull(constructor, "Constructor cannot be null");
+
+		MethodInvoker invoker = constructorCache.get(constructor);
+		return invoker != null ? invoker : constructorCache.computeIfAbsent(constructor, key -> {
+			try {
+				key.setAccessible(true);
+				return new MethodInvoker(new MemberKey(key.getDeclaringClass(), "<init>", key.getParameterTypes()), "<init>", LOOKUP.unreflectConstructor(key), false);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access constructor of " + key.getDeclaringClass().getName(), e);
+			}
+		});
+	}
+
+	/**
+	 * Returns the cached invoker of a method with a certain name and signature
+	 * @param clazz the class which has the method. Cannot be null
+	 * @param name the name of the method. Can neither be null nor empty
+	 * @param params the parameters of the method
+	 * @return the invoker or null if the method could not be found
+	 */
+	@Nullable
+	public static MethodInvoker of(@NotNull Class<?> clazz, @NotNull String name, Class<?>... params) {
+		MemberKey key = new MemberKey(clazz, name, params);
+		MethodInvoker invoker = nameCache.get(key);
+		// resolve method if invoker is not cached
+		if(invoker == null) {
+			Method method = Reflections.getMethod(clazz, name, params);
+			if(method != null) {
+				invoker = of(method);
+				nameCache.putIfAbsent(key, invoker);
+			}
+		}
+		return invoker;
+	}
+
+	/**
+	 * Returns the cached invoker of a constructor with a certain signature
+	 * @param clazz the class you want to instantiate. Cannot be null
+	 * @param params the parameters of the constructor
+	 * @return the invoker or null if the constructor could not be found
+	 */
+	@Nullable
+	public static MethodInvoker ofConstructor(@NotNull Class<?> clazz, Class<?>... params) {
+		// Validate
+		Validate.notNull(clazz, "Class cannot be null");
+
+		MemberKey key = new MemberKey(clazz, null, params);
+		MethodInvoker invoker = nameCache.get(key);
+		// resolve constructor if invoker is not cached
+		if(invoker == null) {
+			try {
+				invoker = of(clazz.getDeclaredConstructor(params));
+				nameCache.putIfAbsent(key, invoker);
+			} catch (NoSuchMethodException e) {
+				Logger.getGlobal().log(Level.SEVERE, e, () -> "Unable to find constructor of " + clazz.getName());
+			}
+		}
+		return invoker;
+	}
+
+	/**
+	 * Invokes the method on a certain object
+	 * @param target the object which executes the method. Ignored for static methods and constructors
+	 * @param args the arguments of the method
+	 * @return the result of the method or null if the method returns void
+	 * @throws InvocationTargetException if the method throws an exception or the arguments are invalid
+	 */
+	@Nullable
+	public Object invoke(@Nullable Object target, Object... args) throws InvocationTargetException {
+		// skip instrumentation if it is disabled
+		if(!ReflectionMetrics.isEnabled()) return call(target, args);
+		
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object result = call(target, args);
+			failed = false;
+			return result;
+		} finally {
+			counter.record(start, failed);
+		}
+	}
+	
+	private Object call(Object target, Object[] args) throws InvocationTargetException {
+		try {
+			return (Object) handle.invokeExact(target, args);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InvocationTargetException(e, "Unable to invoke " + name);
+		}
+	}
+
+	/**
+	 * Creates a new instance with the constructor of this invoker
+	 * @param args the arguments of the constructor
+	 * @return the new instance
+	 * @throws InvocationTargetException if the constructor throws an exception or the arguments are invalid
+	 */
+	@NotNull
+	public Object newInstance(Object... args) throws InvocationTargetException {
+		return invoke(null, args);
+	}
+
+	/**
+	 * Returns the number of parameters of the method without the target
+	 * @return the number of parameters
+	 */
+	public int getParameterCount() {
+		return parameterCount;
+	}
+}
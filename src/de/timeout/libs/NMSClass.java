@@ -0,0 +1,29 @@
+package de.timeout.libs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface as a declaration of an NMS- or CraftBukkit-Class.
+ * The interface can be bound with {@link BukkitReflections#bind(Class)}
+ * @author Timeout
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NMSClass {
+
+	/**
+	 * The name of the class without its version package, for example "PlayerConnection"
+	 * @return the name of the class
+	 */
+	String value();
+	
+	/**
+	 * Defines if the class is a CraftBukkit-Class like "entity.CraftPlayer" instead of an NMS-Class
+	 * @return true if the class is a CraftBukkit-Class, false otherwise
+	 */
+	boolean craftbukkit() default false;
+}
@@ -0,0 +1,260 @@
+package de.timeout.libs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Registry of NMS-Membernames for different server versions.
+ * The bundled mappings.json is compiled into a hash index for the running server version at startup.
+ * Its format is version &rarr; class &rarr; member &rarr; aliases. Entries in "default" apply to every version
+ * and are overridden by the entries of the running version.
+ * @author Timeout
+ *
+ */
+public final class NMSMappings {
+
+	private static final String RESOURCE = "mappings.json";
+	private static final String DEFAULT_SECTION = "default";
+
+	private static final Map<String, Map<String, String[]>> index = load(BukkitReflections.getVersion());
+
+	/**
+	 * Resolved members including misses, so every member is searched only once
+	 */
+	private static final Map<LookupKey, Optional<Field>> fields = new ConcurrentHashMap<>();
+	private static final Map<LookupKey, Optional<Method>> methods = new ConcurrentHashMap<>();
+
+	private NMSMappings() {
+		/* Util-Class does not need an instance */
+	}
+
+	/**
+	 * Returns all known names of a member in the running server version.
+	 * The returned array is shared and must not be modified.
+	 * @param clazz the name of the class like in {@link BukkitReflections#getNMSClass(String)} or {@link BukkitReflections#getCraftBukkitClass(String)}
+	 * @param member the logical name of the member
+	 * @return the names of the member or null if the member is not mapped
+	 */
+	@Nullable
+	public static String[] getNames(@NotNull String clazz, @NotNull String member) {
+		Map<String, String[]> members = index.get(clazz);
+		return members != null ? members.get(member) : null;
+	}
+
+	/**
+	 * Returns a field of an NMS- or CraftBukkit-Class by its mapped names. The result is cached, also if the field could not be found
+	 * @param clazz the name of the class. Names containing a '.' are CraftBukkit-Classes
+	 * @param member the logical name of the field. It is used as fieldname if the field is not mapped
+	 * @return the field or null if the field could not be found
+	 */
+	@Nullable
+	public static Field getField(@NotNull String clazz, @NotNull String member) {
+		LookupKey key = new LookupKey(clazz, member);
+		Optional<Field> field = fields.get(key);
+		// search field only once
+		if(field == null) {
+			field = Optional.ofNullable(searchField(clazz, member));
+			fields.putIfAbsent(key, field);
+		}
+		return field.orElse(null);
+	}
+
+	@Nullable
+	private static Field searchField(String clazz, String member) {
+		Class<?> owner = resolveClass(clazz);
+		if(owner != null) {
+			String[] names = getNames(clazz, member);
+			return names != null ? Reflections.getField(owner, names) : Reflections.getField(owner, member);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a method of an NMS- or CraftBukkit-Class by its mapped names. The result is cached, also if the method could not be found
+	 * @param clazz the name of the class. Names containing a '.' are CraftBukkit-Classes
+	 * @param member the logical name of the method. It is used as methodname if the method is not mapped
+	 * @param params the parameters of the method
+	 * @return the method or null if the method could not be found
+	 */
+	@Nullable
+	public static Method getMethod(@NotNull String clazz, @NotNull String member, Class<?>... params) {
+		LookupKey key = new LookupKey(clazz, member, params);
+		Optional<Method> method = methods.get(key);
+		// search method only once
+		if(method == null) {
+			method = Optional.ofNullable(searchMethod(clazz, member, params));
+			methods.putIfAbsent(key, method);
+		}
+		return method.orElse(null);
+	}
+
+	@Nullable
+	private static Method searchMethod(String clazz, String member, Class<?>... params) {
+		Class<?> owner = resolveClass(clazz);
+		if(owner != null) {
+			String[] names = getNames(clazz, member);
+			// use member name if there is no mapping
+			if(names == null) return findMethod(owner, member, params);
+
+			for(String name : names) {
+				Method method = findMethod(owner, name, params);
+				if(method != null) return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks every mapped member of the running server version and returns all members which cannot be resolved.
+	 * The result is logged as well.
+	 * @return a list of unresolved members in the format Class#member. Empty if every member could be resolved
+	 */
+	@NotNull
+	public static List<String> validate() {
+		List<String> unresolved = new ArrayList<>();
+		// run through all classes
+		index.forEach((clazz, members) -> {
+			Class<?> owner = resolveClass(clazz);
+			members.forEach((member, names) -> {
+				if(owner == null || Arrays.stream(names).noneMatch(name -> hasMember(owner, name))) unresolved.add(clazz + "#" + member);
+			});
+		});
+
+		// log report
+		if(!unresolved.isEmpty()) {
+			Logger.getGlobal().log(Level.WARNING, () -> String.format("%d mapped members could not be resolved in %s: %s",
+					unresolved.size(), BukkitReflections.getVersion(), unresolved));
+		} else Logger.getGlobal().log(Level.INFO, () -> "All mapped members are resolved in " + BukkitReflections.getVersion());
+
+		return unresolved;
+	}
+
+	@Nullable
+	private static Class<?> resolveClass(String clazz) {
+		return clazz.indexOf('.') != -1 ? BukkitReflections.getCraftBukkitClass(clazz) : BukkitReflections.getNMSClass(clazz);
+	}
+
+	@Nullable
+	private static Method findMethod(Class<?> owner, String name, Class<?>... params) {
+		// search public methods first
+		try {
+			return owner.getMethod(name, params);
+		} catch (NoSuchMethodException e) {
+			// search declared methods
+			try {
+				return owner.getDeclaredMethod(name, params);
+			} catch (NoSuchMethodException e1) {
+				return null;
+			}
+		}
+	}
+
+	private static boolean hasMember(Class<?> owner, String name) {
+		// search fields
+		if(Reflections.getField(owner, name) != null) return true;
+		// search methods
+		for(Class<?> clazz = owner; clazz != null; clazz = clazz.getSuperclass()) {
+			if(Arrays.stream(clazz.getDeclaredMethods()).anyMatch(method -> method.getName().equals(name))) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the bundled mappings and compiles them for a certain version
+	 * @param version the server version
+	 * @return the index of the mappings
+	 */
+	private static Map<String, Map<String, String[]>> load(String version) {
+		Map<String, Map<String, String[]>> compiled = new HashMap<>();
+
+		try(InputStream stream = NMSMappings.class.getResourceAsStream(RESOURCE)) {
+			// Validate
+			Validate.notNull(stream, "Unable to find " + RESOURCE);
+
+			try(Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+				JsonObject root = new JsonParser().parse(reader).getAsJsonObject();
+				// apply default first, so version entries override them
+				apply(root.getAsJsonObject(DEFAULT_SECTION), compiled);
+				apply(root.getAsJsonObject(version), compiled);
+			}
+		} catch (IOException | RuntimeException e) {
+			Logger.getGlobal().log(Level.SEVERE, "Unable to load NMS-Mappings. Continue with membernames", e);
+		}
+
+		// make index immutable
+		compiled.replaceAll((clazz, members) -> Collections.unmodifiableMap(members));
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	/**
+	 * Identifies a member by the name of its class, its logical name and its parameter types
+	 * @author Timeout
+	 *
+	 */
+	private static final class LookupKey {
+
+		private final String clazz;
+		private final String member;
+		private final Class<?>[] params;
+		private final int hash;
+
+		private LookupKey(String clazz, String member, Class<?>... params) {
+			this.clazz = clazz;
+			this.member = member;
+			this.params = params.length > 0 ? params.clone() : params;
+			this.hash = 31 * (31 * clazz.hashCode() + member.hashCode()) + Arrays.hashCode(params);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj)
+				return true;
+			if(!(obj instanceof LookupKey))
+				return false;
+			LookupKey other = (LookupKey) obj;
+			return clazz.equals(other.clazz) && member.equals(other.member) && Arrays.equals(params, other.params);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static void apply(@Nullable JsonObject section, Map<String, Map<String, String[]>> compiled) {
+		// only continue if section exists
+		if(section != null) {
+			section.entrySet().forEach(clazz -> {
+				Map<String, String[]> members = compiled.computeIfAbsent(clazz.getKey(), key -> new HashMap<>());
+				clazz.getValue().getAsJsonObject().entrySet().forEach(member -> {
+					List<String> names = new ArrayList<>();
+					for(JsonElement name : member.getValue().getAsJsonArray()) names.add(name.getAsString());
+					members.put(member.getKey(), names.toArray(new String[0]));
+				});
+			});
+		}
+	}
+}
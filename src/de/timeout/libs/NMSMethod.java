@@ -0,0 +1,29 @@
+package de.timeout.libs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Links a method of a bound interface to a method of its target class.
+ * The names are tried in order until a method with a compatible signature is found.
+ * @author Timeout
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface NMSMethod {
+
+	/**
+	 * The names of the method. NMS-Methodnames may changes in different versions
+	 * @return the names of the method
+	 */
+	String[] value();
+	
+	/**
+	 * Alternative names for certain server versions. They are tried before {@link NMSMethod#value()}
+	 * @return the version dependent names of the method
+	 */
+	Remap[] remap() default {};
+}
@@ -0,0 +1,355 @@
+package de.timeout.libs;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dedicated executor which sends packets outside of the main thread.
+ * Unlike the common pool it has a bounded queue, a fixed number of threads and an {@link OverflowPolicy}
+ * which decides what happens if the queue is full. Queue depth, rejections and the latency between
+ * enqueueing and sending a packet can be read at any time.
+ * @author Timeout
+ *
+ */
+public final class PacketDispatcher {
+
+	private static final int DEFAULT_CAPACITY = 8192;
+	private static final AtomicInteger dispatcherCount = new AtomicInteger();
+
+	private static volatile PacketDispatcher defaultDispatcher;
+
+	private final BlockingQueue<Runnable> queue;
+	private final ThreadPoolExecutor executor;
+	private final OverflowPolicy policy;
+
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder drops = new LongAdder();
+	private final LongAdder latencyNanos = new LongAdder();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	/**
+	 * Creates a new dispatcher
+	 * @param parallelism the number of threads which send packets. Must be positive
+	 * @param capacity the maximum number of waiting packets. Must be positive
+	 * @param policy the behaviour if the queue is full. Cannot be null
+	 * @throws IllegalArgumentException if an argument is invalid
+	 */
+	public PacketDispatcher(int parallelism, int capacity, @NotNull OverflowPolicy policy) {
+		// Validate
+		Validate.isTrue(parallelism > 0, "Parallelism must be positive");
+		Validate.isTrue(capacity > 0, "Capacity must be positive");
+		Validate.notNull(policy, "OverflowPolicy cannot be null");
+
+		String name = "Libs-PacketDispatcher-" + dispatcherCount.incrementAndGet();
+		AtomicInteger threadCount = new AtomicInteger();
+
+		this.policy = policy;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new OverflowHandler());
+	}
+
+	/**
+	 * Returns the dispatcher which is used by {@link Players}.
+	 * The default dispatcher uses half of the available processors, at most four threads and runs packets inline if its queue is full.
+	 * @return the default dispatcher
+	 */
+	@NotNull
+	public static PacketDispatcher getDefault() {
+		PacketDispatcher dispatcher = defaultDispatcher;
+		if(dispatcher == null) {
+			synchronized (PacketDispatcher.class) {
+				dispatcher = defaultDispatcher;
+				if(dispatcher == null) {
+					int parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+					dispatcher = new PacketDispatcher(parallelism, DEFAULT_CAPACITY, OverflowPolicy.CALLER_RUNS);
+					defaultDispatcher = dispatcher;
+				}
+			}
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Replaces the default dispatcher. The old dispatcher sends all waiting packets and shuts down afterwards
+	 * @param dispatcher the new default dispatcher. Cannot be null
+	 * @throws IllegalArgumentException if the dispatcher is null
+	 */
+	public static void setDefault(@NotNull PacketDispatcher dispatcher) {
+		// Validate
+		Validate.notNull(dispatcher, "Dispatcher cannot be null");
+
+		PacketDispatcher old;
+		synchronized (PacketDispatcher.class) {
+			old = defaultDispatcher;
+			defaultDispatcher = dispatcher;
+		}
+		if(old != null && old != dispatcher) old.shutdown();
+	}
+
+	/**
+	 * Enqueues a task which sends one or more packets
+	 * @param task the task. Cannot be null
+	 * @throws IllegalArgumentException if the task is null
+	 */
+	public void dispatch(@NotNull Runnable task) {
+		// Validate
+		Validate.notNull(task, "Task cannot be null");
+
+		try {
+			executor.execute(new DispatchTask(task));
+		} catch (RejectedExecutionException e) {
+			// dispatcher is shut down or the caller was interrupted
+			rejections.increment();
+			Logger.getGlobal().log(Level.WARNING, "Unable to enqueue packet. Packet is discarded", e);
+		}
+	}
+
+	/**
+	 * Applies an action to a collection of elements in batches. Every batch is a single task, so sending a packet to
+	 * many players does not create one task per player. An exception of one element does not affect the other elements.
+	 * @param elements the elements. The collection is copied, so it can be modified afterwards. Cannot be null
+	 * @param batchSize the maximum number of elements per task. Must be positive
+	 * @param action the action which is executed for every element. Cannot be null
+	 * @throws IllegalArgumentException if an argument is invalid
+	 */
+	public <T> void dispatch(@NotNull Collection<? extends T> elements, int batchSize, @NotNull Consumer<? super T> action) {
+		// Validate
+		Validate.notNull(elements, "Elements cannot be null");
+		Validate.isTrue(batchSize > 0, "Batch size must be positive");
+		Validate.notNull(action, "Action cannot be null");
+
+		Object[] snapshot = elements.toArray();
+		// split into batches
+		for(int from = 0; from < snapshot.length; from += batchSize) {
+			int start = from;
+			int end = Math.min(snapshot.length, from + batchSize);
+			dispatch(() -> {
+				for(int i = start; i < end; i++) {
+					try {
+						@SuppressWarnings("unchecked")
+						T element = (T) snapshot[i];
+						action.accept(element);
+					} catch (RuntimeException | LinkageError e) {
+						failures.increment();
+						Logger.getGlobal().log(Level.WARNING, "Unable to dispatch packet", e);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Stops accepting new tasks. Waiting tasks are still sent
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the number of tasks which wait for a free thread
+	 * @return the current queue depth
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Returns the maximum number of waiting tasks
+	 * @return the capacity of the queue
+	 */
+	public int getCapacity() {
+		return queue.size() + queue.remainingCapacity();
+	}
+
+	/**
+	 * Returns the number of threads which send packets
+	 * @return the parallelism of this dispatcher
+	 */
+	public int getParallelism() {
+		return executor.getCorePoolSize();
+	}
+
+	/**
+	 * Returns the behaviour of this dispatcher if its queue is full
+	 * @return the overflow policy
+	 */
+	@NotNull
+	public OverflowPolicy getOverflowPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Returns the number of sent tasks
+	 * @return the number of executed tasks
+	 */
+	public long getDispatchedCount() {
+		return dispatched.sum();
+	}
+
+	/**
+	 * Returns how often the queue was full. Depending on the policy those tasks are discarded, waited for or executed inline
+	 * @return the number of rejections
+	 */
+	public long getRejectionCount() {
+		return rejections.sum();
+	}
+
+	/**
+	 * Returns the number of tasks which threw an exception
+	 * @return the number of failed tasks
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * Returns the number of waiting tasks which were discarded by {@link OverflowPolicy#DROP_OLDEST}
+	 * @return the number of dropped tasks
+	 */
+	public long getDropCount() {
+		return drops.sum();
+	}
+
+	/**
+	 * Returns the average time between enqueueing a task and finishing it
+	 * @return the average latency in nanoseconds
+	 */
+	public double getAverageLatencyNanos() {
+		long count = dispatched.sum();
+		return count > 0 ? (double) latencyNanos.sum() / count : 0D;
+	}
+
+	/**
+	 * Returns the highest time between enqueueing a task and finishing it
+	 * @return the maximum latency in nanoseconds
+	 */
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos.get();
+	}
+
+	/**
+	 * Resets the counters and latencies of this dispatcher
+	 */
+	public void resetStatistics() {
+		dispatched.reset();
+		rejections.reset();
+		failures.reset();
+		drops.reset();
+		latencyNanos.reset();
+		maxLatencyNanos.set(0L);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PacketDispatcher[parallelism=%d, queue=%d/%d, policy=%s, dispatched=%d, rejections=%d, drops=%d, avgLatency=%.2fms]",
+				getParallelism(), getQueueDepth(), getCapacity(), policy, getDispatchedCount(), getRejectionCount(), getDropCount(), getAverageLatencyNanos() / 1_000_000D);
+	}
+
+	/**
+	 * Behaviour of a dispatcher if its queue is full
+	 * @author Timeout
+	 *
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Discards the oldest waiting task to make room for the new one
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Blocks the calling thread until the queue has room again
+		 */
+		BLOCK,
+
+		/**
+		 * Executes the task on the calling thread
+		 */
+		CALLER_RUNS
+	}
+
+	/**
+	 * Task which measures the time between its creation and its completion
+	 * @author Timeout
+	 *
+	 */
+	private final class DispatchTask implements Runnable {
+
+		private final Runnable task;
+		private final long enqueued = System.nanoTime();
+
+		private DispatchTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				task.run();
+			} catch (RuntimeException | LinkageError e) {
+				failures.increment();
+				Logger.getGlobal().log(Level.WARNING, "Unable to dispatch packet", e);
+			} finally {
+				long latency = System.nanoTime() - enqueued;
+				latencyNanos.add(latency);
+				maxLatencyNanos.accumulateAndGet(latency, Math::max);
+				dispatched.increment();
+			}
+		}
+	}
+
+	/**
+	 * Applies the overflow policy of this dispatcher
+	 * @author Timeout
+	 *
+	 */
+	private final class OverflowHandler implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			// executor is shut down
+			if(executor.isShutdown()) throw new RejectedExecutionException("Dispatcher is shut down");
+
+			rejections.increment();
+			switch(policy) {
+			case DROP_OLDEST:
+				// remove oldest until there is room for the new task
+				while(!queue.offer(task)) {
+					if(queue.poll() != null) drops.increment();
+				}
+				break;
+			case BLOCK:
+				try {
+					queue.put(task);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException("Interrupted while waiting for the packet queue", e);
+				}
+				break;
+			default:
+				task.run();
+				break;
+			}
+		}
+	}
+}
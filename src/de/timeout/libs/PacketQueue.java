@@ -0,0 +1,175 @@
+package de.timeout.libs;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Outbound packet queue of all players which is flushed once per server tick.
+ * Every packet has a coalescing key. A newer packet with the same key replaces the waiting one,
+ * so only the latest title, action bar or window update of a tick reaches the player.
+ * @author Timeout
+ *
+ */
+final class PacketQueue {
+
+	private static final Map<Player, PendingPackets> pending = new ConcurrentHashMap<>();
+	private static final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private PacketQueue() {
+		/* Util-Class does not need an instance */
+	}
+
+	/**
+	 * Adds a packet to the queue of a player and schedules a flush in the next tick.
+	 * If there is no enabled plugin which can schedule the flush, only this packet is sent immediately
+	 * @param player the recipient
+	 * @param key the coalescing key. Null if the packet must not be replaced
+	 * @param packet the packet
+	 * @param callback the action which runs after the packet was sent. Can be null
+	 */
+	static void queue(@NotNull Player player, @Nullable Object key, @NotNull Object packet, @Nullable Runnable callback) {
+		Object coalescingKey = key != null ? key : new Object();
+
+		Plugin plugin = getPlugin();
+		if(plugin == null) {
+			// send this packet only. The packets of other callers stay untouched
+			PendingPackets single = new PendingPackets(player);
+			single.put(coalescingKey, new QueuedPacket(packet, callback));
+			single.send();
+			return;
+		}
+
+		pending.compute(player, (recipient, packets) -> {
+			PendingPackets result = packets != null ? packets : new PendingPackets(recipient);
+			result.put(coalescingKey, new QueuedPacket(packet, callback));
+			return result;
+		});
+		schedule(plugin, player);
+	}
+
+	/**
+	 * Removes all waiting packets of a player
+	 * @param player the player
+	 */
+	static void discard(@NotNull Player player) {
+		pending.remove(player);
+	}
+
+	/**
+	 * Sends all waiting packets. Called once per tick on the main thread.
+	 * The packets are sent through the PlayerConnection, so they keep their order to all packets sent before
+	 */
+	static void flush() {
+		// allow new flushes before draining, so packets of this tick are never lost
+		scheduled.set(false);
+
+		List<PendingPackets> drained = new ArrayList<>(pending.size());
+		for(Iterator<Player> iterator = pending.keySet().iterator(); iterator.hasNext();) {
+			PendingPackets packets = pending.remove(iterator.next());
+			if(packets != null) drained.add(packets);
+		}
+
+		// packets are sent directly, so callbacks run after their packets
+		drained.forEach(PendingPackets::send);
+	}
+
+	/**
+	 * Schedules a flush in the next tick if there is none yet.
+	 * If the flush cannot be scheduled, the waiting packets of the caller's recipient are sent immediately
+	 * @param plugin the plugin which runs the flush
+	 * @param player the recipient of the caller
+	 */
+	private static void schedule(Plugin plugin, Player player) {
+		if(scheduled.compareAndSet(false, true)) {
+			try {
+				Bukkit.getScheduler().runTask(plugin, PacketQueue::flush);
+			} catch (RuntimeException e) {
+				// the next queued packet tries again
+				scheduled.set(false);
+				Bukkit.getLogger().log(Level.FINE, "Unable to schedule packet flush. Send packets of player immediately", e);
+
+				PendingPackets packets = pending.remove(player);
+				if(packets != null) packets.send();
+			}
+		}
+	}
+
+	@Nullable
+	private static Plugin getPlugin() {
+		try {
+			Plugin plugin = JavaPlugin.getProvidingPlugin(PacketQueue.class);
+			return plugin.isEnabled() ? plugin : null;
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			return null;
+		}
+	}
+
+	private static void runCallback(@Nullable Runnable callback) {
+		if(callback != null) {
+			try {
+				callback.run();
+			} catch (RuntimeException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Exception in callback of queued packet", e);
+			}
+		}
+	}
+
+	/**
+	 * Waiting packets of a single player in the order of their last update
+	 * @author Timeout
+	 *
+	 */
+	private static final class PendingPackets {
+
+		private final Player player;
+		private final Map<Object, QueuedPacket> packets = new LinkedHashMap<>();
+
+		private PendingPackets(Player player) {
+			this.player = player;
+		}
+
+		private void put(Object key, QueuedPacket packet) {
+			// a replaced packet moves to the end, so it is sent after all older packets
+			packets.remove(key);
+			packets.put(key, packet);
+		}
+
+		private void send() {
+			// ignore players who left in this tick
+			if(player.isOnline()) {
+				Players.send(player, packets.values().stream().map(queued -> queued.packet).toArray());
+				// the connection sends packets in order, so packets of callbacks follow the queued packets
+				packets.values().forEach(queued -> runCallback(queued.callback));
+			}
+		}
+	}
+
+	/**
+	 * A packet with its callback
+	 * @author Timeout
+	 *
+	 */
+	private static final class QueuedPacket {
+
+		private final Object packet;
+		private final Runnable callback;
+
+		private QueuedPacket(Object packet, Runnable callback) {
+			this.packet = packet;
+			this.callback = callback;
+		}
+	}
+}
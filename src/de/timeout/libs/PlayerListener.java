@@ -0,0 +1,49 @@
+package de.timeout.libs;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Removes the cached data of {@link Players} when a player quits
+ * @author Timeout
+ *
+ */
+class PlayerListener implements Listener {
+
+	private static final AtomicBoolean registered = new AtomicBoolean();
+
+	private PlayerListener() {
+		/* Registered once by PlayerListener#register() */
+	}
+
+	/**
+	 * Registers the listener for the plugin which contains this library. Does nothing if the listener is already registered
+	 */
+	static void register() {
+		if(registered.compareAndSet(false, true)) {
+			try {
+				Plugin plugin = JavaPlugin.getProvidingPlugin(PlayerListener.class);
+
+				// listeners must be registered on the main thread
+				if(Bukkit.isPrimaryThread()) {
+					Bukkit.getPluginManager().registerEvents(new PlayerListener(), plugin);
+				} else Bukkit.getScheduler().runTask(plugin, () -> Bukkit.getPluginManager().registerEvents(new PlayerListener(), plugin));
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Unable to register player listener of Libs. Player caches are only cleared by the garbage collector", e);
+			}
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onQuit(PlayerQuitEvent event) {
+		Players.invalidate(event.getPlayer());
+	}
+}
@@ -1,43 +1,250 @@
 package de.timeout.libs;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.lang.Validate;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mojang.authlib.GameProfile;
 
-public final class Players {
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 
-	private static final Class<?> packetClass = BukkitReflections.getNMSClass("Packet");
-	private static final Class<?> entityhumanClass = BukkitReflections.getNMSClass("EntityHuman");
-	
-	private static final @NotNull Field activeContainer = Objects.requireNonNull(Reflections.getField(entityhumanClass, "activeContainer"));
+public final class Players {
 	
+	/**
+	 * Maximum number of recipients which are sent in a single task of {@link Players#broadcastPacket(Collection, Object)}
+	 */
+	static final int BROADCAST_BATCH_SIZE = 32;
+
 	private Players() {
 		/* UTIL-Classes does not need any instantiations */
 	}
 	
 	/**
-	 * This Method returns the player's GameProfile
+	 * Handles of the CraftPlayer. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class PlayerHandles {
+		
+		private static final Class<?> craftplayerClass = BukkitReflections.getCraftBukkitClass("entity.CraftPlayer");
+		
+		private static final @NotNull MethodInvoker getHandle = Objects.requireNonNull(MethodInvoker.of(craftplayerClass, "getHandle"));
+		private static final @NotNull MethodInvoker getProfile = Objects.requireNonNull(MethodInvoker.of(craftplayerClass, "getProfile"));
+	}
+	
+	/**
+	 * Handles of the active container. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class ContainerHandles {
+		
+		private static final @NotNull FieldAccessor activeContainer = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("EntityHuman", "activeContainer")));
+	}
+	
+	/**
+	 * Handles of the PlayerConnection. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class ConnectionHandles {
+		
+		private static final Class<?> packetClass = BukkitReflections.getNMSClass("Packet");
+		
+		private static final @NotNull FieldAccessor playerConnection = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("EntityPlayer", "playerConnection")));
+		private static final @NotNull MethodHandle sendPacket = unreflect(Objects.requireNonNull(BukkitReflections.getMethod("PlayerConnection", "sendPacket", packetClass)));
+		
+		private static MethodHandle unreflect(Method method) {
+			try {
+				method.setAccessible(true);
+				// convert into (Object, Object)void
+				return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class));
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to access method " + method.getName(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Handles of the Netty-Channel of a PlayerConnection. Resolved on first use or by {@link Warmup}.
+	 * If they cannot be resolved, packets are sent through the PlayerConnection
+	 */
+	private static final class ChannelHandles {
+		
+		private static final @NotNull FieldAccessor networkManager = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("PlayerConnection", "networkManager")));
+		private static final @NotNull FieldAccessor channel = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("NetworkManager", "channel")));
+	}
+	
+	/**
+	 * Handles to encode a packet without a connection. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class EncoderHandles {
+		
+		private static final Class<?> packetClass = BukkitReflections.getNMSClass("Packet");
+		private static final Class<?> packetdataserializerClass = BukkitReflections.getNMSClass("PacketDataSerializer");
+		private static final Class<?> enumprotocolClass = BukkitReflections.getNMSClass("EnumProtocol");
+		private static final Class<?> enumprotocoldirectionClass = BukkitReflections.getNMSClass("EnumProtocolDirection");
+		
+		private static final @NotNull Object play = enumConstant(enumprotocolClass, "PLAY");
+		private static final @NotNull Object clientbound = enumConstant(enumprotocoldirectionClass, "CLIENTBOUND");
+		
+		private static final @NotNull AttributeKey<Object> protocol = AttributeKey.valueOf("protocol");
+		
+		private static final @NotNull MethodInvoker packetId = MethodInvoker.of(Objects.requireNonNull(
+				BukkitReflections.getMethod("EnumProtocol", "packetId", enumprotocoldirectionClass, packetClass)));
+		private static final @NotNull MethodInvoker serializerConstructor = Objects.requireNonNull(MethodInvoker.ofConstructor(packetdataserializerClass, ByteBuf.class));
+		private static final @NotNull MethodInvoker writeVarInt = MethodInvoker.of(Objects.requireNonNull(
+				BukkitReflections.getMethod("PacketDataSerializer", "writeVarInt", int.class)));
+		private static final @NotNull MethodInvoker write = MethodInvoker.of(Objects.requireNonNull(
+				BukkitReflections.getMethod("Packet", "write", packetdataserializerClass)));
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static Object enumConstant(Class<?> enumClass, String name) {
+			return Enum.valueOf((Class) Objects.requireNonNull(enumClass), name);
+		}
+	}
+	
+	/**
+	 * Cache of the resolved connections of all online players. The entries are removed when the player quits
+	 */
+	private static final class ConnectionCache {
+		
+		private static final Cache<Player, Connection> connections = CacheBuilder.newBuilder().weakKeys().build();
+		
+		static {
+			PlayerListener.register();
+		}
+	}
+	
+	/**
+	 * Cache of the GameProfiles of all online players. The entries are removed when the player quits
+	 */
+	private static final class ProfileCache {
+		
+		private static final Cache<Player, GameProfile> profiles = CacheBuilder.newBuilder().weakKeys().build();
+		
+		static {
+			PlayerListener.register();
+		}
+	}
+	
+	/**
+	 * Represents the PlayerConnection of a player with a sendPacket-Handle which is already bound to the connection
+	 * and the Netty-Channel of the connection if it could be resolved
+	 * @author Timeout
+	 *
+	 */
+	private static final class Connection {
+		
+		private final Object handle;
+		private final MethodHandle sendPacket;
+		private final @Nullable Channel channel;
+		
+		private Connection(Object handle) {
+			this.handle = handle;
+			this.sendPacket = ConnectionHandles.sendPacket.bindTo(handle);
+			this.channel = resolveChannel(handle);
+		}
+		
+		@Nullable
+		private static Channel resolveChannel(Object handle) {
+			try {
+				return (Channel) ChannelHandles.channel.get(ChannelHandles.networkManager.get(handle));
+			} catch (LinkageError | RuntimeException e) {
+				Logger.getGlobal().log(Level.FINE, "Unable to resolve channel of connection. Use PlayerConnection instead", e);
+				return null;
+			}
+		}
+		
+		private void send(Object packet) throws InvocationTargetException {
+			try {
+				sendPacket.invokeExact(packet);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e, "Unable to send packet " + packet.getClass().getSimpleName());
+			}
+		}
+		
+		/**
+		 * Sends several packets through the PlayerConnection in the given order
+		 * @param packets the packets
+		 * @throws InvocationTargetException if a packet could not be sent
+		 */
+		private void send(Object[] packets) throws InvocationTargetException {
+			for(Object packet : packets) send(packet);
+		}
+		
+		/**
+		 * Writes several packets into the channel and flushes it once.
+		 * The packets are written by a task in the event loop of the channel, so this method does not block.
+		 * They bypass the packet queue of the NetworkManager and can overtake packets which are still waiting there.
+		 * If the channel is not available, closed or not in the play state, the packets are sent through the PlayerConnection instead
+		 * @param packets the packets
+		 * @throws InvocationTargetException if the packets are sent through the PlayerConnection and a packet could not be sent
+		 */
+		private void write(Object[] packets) throws InvocationTargetException {
+			Channel target = channel;
+			if(target != null && target.isOpen() && target.attr(EncoderHandles.protocol).get() == EncoderHandles.play) {
+				target.eventLoop().execute(() -> {
+					for(Object packet : packets) target.write(packet, target.voidPromise());
+					target.flush();
+				});
+			} else send(packets);
+		}
+	}
+	
+	/**
+	 * This Method returns the player's GameProfile. The profile is cached until the player quits
+	 * or {@link Players#invalidateGameProfile(Player)} is called
 	 * @param player the owner of the GameProfile
 	 * @return the Gameprofile
+	 * @throws IllegalArgumentException if the player is null
 	 */
 	public static GameProfile getGameProfile(@NotNull Player player) {
-		 try {
-			Class<?> craftplayerClass = BukkitReflections.getCraftBukkitClass("entity.CraftPlayer");
-			return craftplayerClass != null ? (GameProfile) craftplayerClass.getMethod("getProfile").invoke(player) : null;
-		 } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-			Logger.getGlobal().log(Level.INFO, e, () -> "Could not get GameProfile from Player " + player.getName());
-		 }
-		 return new GameProfile(player.getUniqueId(), player.getName());
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		
+		GameProfile profile = ProfileCache.profiles.getIfPresent(player);
+		// resolve profile if it is not cached
+		if(profile == null) {
+			try {
+				profile = (GameProfile) PlayerHandles.getProfile.invoke(player);
+			} catch (InvocationTargetException e) {
+				Logger.getGlobal().log(Level.INFO, e, () -> "Could not get GameProfile from Player " + player.getName());
+			}
+			
+			// do not cache fallback profiles and players who already left
+			if(profile == null) return new GameProfile(player.getUniqueId(), player.getName());
+			if(player.isOnline()) ProfileCache.profiles.put(player, profile);
+		}
+		return profile;
+	}
+	
+	/**
+	 * Removes the cached GameProfile of a player. Call this method after the profile or the skin of the player was replaced,
+	 * so the next call of {@link Players#getGameProfile(Player)} reads the new profile
+	 * @param player the owner of the GameProfile
+	 * @throws IllegalArgumentException if the player is null
+	 */
+	public static void invalidateGameProfile(@NotNull Player player) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		
+		ProfileCache.profiles.invalidate(player);
 	}
 	
 	/**
@@ -47,8 +254,7 @@ public final class Players {
 	 * @throws ReflectiveOperationException if there was an error
 	 */
 	public static Object getEntityPlayer(@NotNull Player player) throws ReflectiveOperationException {
-		Method getHandle = player.getClass().getMethod("getHandle");
-		return getHandle.invoke(player);
+		return PlayerHandles.getHandle.invoke(player);
 	}
 	
 	/**
@@ -63,7 +269,7 @@ public final class Players {
 		Object entityPlayer = getEntityPlayer(player);
 			
 		// return active container
-		return Reflections.getValue(activeContainer, entityPlayer);
+		return ContainerHandles.activeContainer.get(entityPlayer);
 	}
 	
 	/**
@@ -77,13 +283,41 @@ public final class Players {
 		// Validate
 		Validate.notNull(player, "Player cannot be null");
 		
-		Object nmsp = getEntityPlayer(player);
-		Field con = nmsp.getClass().getField("playerConnection");
-		return con.get(nmsp);
+		return getConnection(player).handle;
 	}
 	
 	/**
-	 * This method sends a Packet to a Player
+	 * Returns the cached connection of a player. The connection will be resolved if it is not cached yet
+	 * @param player the owner of the connection
+	 * @return the connection of the player
+	 * @throws ReflectiveOperationException if the connection could not be resolved
+	 */
+	@NotNull
+	private static Connection getConnection(@NotNull Player player) throws ReflectiveOperationException {
+		Connection connection = ConnectionCache.connections.getIfPresent(player);
+		// resolve connection if it is not cached
+		if(connection == null) {
+			Object entityPlayer = getEntityPlayer(player);
+			connection = new Connection(Objects.requireNonNull(ConnectionHandles.playerConnection.get(entityPlayer)));
+			
+			// do not cache players who already left
+			if(player.isOnline()) ConnectionCache.connections.put(player, connection);
+		}
+		return connection;
+	}
+	
+	/**
+	 * Removes all cached data of a player. Called when the player quits
+	 * @param player the player
+	 */
+	static void invalidate(@NotNull Player player) {
+		ConnectionCache.connections.invalidate(player);
+		ProfileCache.profiles.invalidate(player);
+		PacketQueue.discard(player);
+	}
+	
+	/**
+	 * This method sends a Packet to a Player. The packet is sent asynchronously by the default {@link PacketDispatcher}
 	 * @param player the Player
 	 * @param packet the packet
 	 */
@@ -92,14 +326,219 @@ public final class Players {
 		Validate.notNull(player, "Player cannot be null");
 		Validate.notNull(packet, "Packet cannot be null");
 		
-		CompletableFuture.runAsync(() -> {
-			try {
-				Object playerConnection = getPlayerConnection(player);
-				playerConnection.getClass().getMethod("sendPacket", packetClass).invoke(playerConnection, packet);
-			} catch (ReflectiveOperationException e) {
-				Logger.getGlobal().log(Level.WARNING, "Unable to send packet to player", e);
+		PacketDispatcher.getDefault().dispatch(() -> send(player, packet));
+	}
+	
+	/**
+	 * Queues a packet which is sent at the next server tick. A packet with the same key which is still waiting will be replaced,
+	 * so packets which supersede each other like titles or window updates are sent only once per tick.
+	 * @param player the recipient. Cannot be null
+	 * @param key the coalescing key. Null if the packet must not be replaced
+	 * @param packet the packet. Cannot be null
+	 * @throws IllegalArgumentException if the player or the packet is null
+	 */
+	public static void queuePacket(@NotNull Player player, @Nullable Object key, @NotNull Object packet) {
+		queuePacket(player, key, packet, null);
+	}
+	
+	/**
+	 * Queues a packet which is sent at the next server tick. A packet with the same key which is still waiting will be replaced
+	 * together with its callback. If the plugin of this library is not enabled, the packet and its callback run immediately on the calling thread.
+	 * @param player the recipient. Cannot be null
+	 * @param key the coalescing key. Null if the packet must not be replaced
+	 * @param packet the packet. Cannot be null
+	 * @param callback the action which runs on the main thread after the packet was sent. Can be null
+	 * @throws IllegalArgumentException if the player or the packet is null
+	 */
+	public static void queuePacket(@NotNull Player player, @Nullable Object key, @NotNull Object packet, @Nullable Runnable callback) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		Validate.notNull(packet, "Packet cannot be null");
+		
+		PacketQueue.queue(player, key, packet, callback);
+	}
+	
+	/**
+	 * Sends several packets to a player at once through the PlayerConnection of the player.
+	 * The packets are sent asynchronously in the given order and must not be modified afterwards.
+	 * @param player the recipient. Cannot be null
+	 * @param packets the packets. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void sendPackets(@NotNull Player player, @NotNull Collection<?> packets) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		Validate.noNullElements(packets, "Packets cannot be null");
+		
+		Object[] batch = packets.toArray();
+		if(batch.length > 0) PacketDispatcher.getDefault().dispatch(() -> send(player, batch));
+	}
+	
+	/**
+	 * Writes several packets directly into the Netty-Channel of a player and flushes it only once, which saves a flush for every packet.
+	 * The packets bypass the packet queue of the NetworkManager, so they can overtake packets which were sent before
+	 * and still wait in that queue, e.g. while the connection is busy. Use {@link Players#sendPackets(Player, Collection)}
+	 * if the packets must arrive after all packets sent before.
+	 * If the channel is not available, closed or not in the play state, the packets are sent through the PlayerConnection instead.
+	 * The packets are sent asynchronously in the given order and must not be modified afterwards.
+	 * @param player the recipient. Cannot be null
+	 * @param packets the packets. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void writePackets(@NotNull Player player, @NotNull Collection<?> packets) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		Validate.noNullElements(packets, "Packets cannot be null");
+		
+		Object[] batch = packets.toArray();
+		if(batch.length > 0) PacketDispatcher.getDefault().dispatch(() -> write(player, batch));
+	}
+	
+	/**
+	 * Sends the same packet to several players. The players are sent in batches, so this method does not create one task per player.
+	 * The packet must not be modified afterwards.
+	 * @param players the recipients of the packet. Cannot be null
+	 * @param packet the packet. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void broadcastPacket(@NotNull Collection<? extends Player> players, @NotNull Object packet) {
+		// Validate
+		Validate.notNull(players, "Players cannot be null");
+		Validate.notNull(packet, "Packet cannot be null");
+		
+		PacketDispatcher.getDefault().dispatch(players, BROADCAST_BATCH_SIZE, player -> send(player, packet));
+	}
+	
+	/**
+	 * Sends the same packet to all players which match a certain filter. The filter is tested on the calling thread.
+	 * The packet must not be modified afterwards.
+	 * @param players the possible recipients of the packet. Cannot be null
+	 * @param packet the packet. Cannot be null
+	 * @param filter the filter the recipients must match. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void broadcastPacket(@NotNull Collection<? extends Player> players, @NotNull Object packet, @NotNull Predicate<? super Player> filter) {
+		// Validate
+		Validate.notNull(players, "Players cannot be null");
+		Validate.notNull(filter, "Filter cannot be null");
+		
+		List<Player> recipients = new ArrayList<>(players.size());
+		for(Player player : players) {
+			if(filter.test(player)) recipients.add(player);
+		}
+		broadcastPacket(recipients, packet);
+	}
+	
+	/**
+	 * Sends the same packet to several players and encodes it only once. The encoded packet is shared between
+	 * the Netty-Channels of all recipients, so only compression and encryption still happen for every player.
+	 * Use this method only for packets whose content does not depend on the recipient like titles or chat messages.
+	 * Recipients whose channel is not available or not in the play state receive the packet like in
+	 * {@link Players#broadcastPacket(Collection, Object)}.
+	 * This is an opt-in fast path: the encoded packet is written directly into the channel and bypasses the packet queue
+	 * of the NetworkManager, so it can overtake packets which were sent before and still wait in that queue.
+	 * Netty handlers which inspect packet objects, e.g. of ProtocolLib or ViaVersion, never see this packet.
+	 * Use {@link Players#broadcastPacket(Collection, Object)} if the order or the interception of the packet matters.
+	 * @param players the recipients of the packet. Cannot be null
+	 * @param packet the packet. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void broadcastEncodedPacket(@NotNull Collection<? extends Player> players, @NotNull Object packet) {
+		// Validate
+		Validate.notNull(players, "Players cannot be null");
+		Validate.notNull(packet, "Packet cannot be null");
+		
+		Player[] recipients = players.toArray(new Player[0]);
+		if(recipients.length > 0) PacketDispatcher.getDefault().dispatch(() -> writeEncoded(recipients, packet));
+	}
+	
+	/**
+	 * Encodes a packet once and writes a duplicate of the buffer into the channel of every recipient
+	 * @param recipients the recipients
+	 * @param packet the packet
+	 */
+	private static void writeEncoded(Player[] recipients, Object packet) {
+		ByteBuf buffer = encode(packet);
+		try {
+			for(Player player : recipients) {
+				try {
+					Connection connection = getConnection(player);
+					Channel channel = connection.channel;
+					
+					// the pipeline passes encoded buffers through its encoder. Only possible in play state
+					if(buffer != null && channel != null && channel.attr(EncoderHandles.protocol).get() == EncoderHandles.play) {
+						if(channel.isOpen()) channel.writeAndFlush(buffer.retainedDuplicate(), channel.voidPromise());
+					} else connection.send(packet);
+				} catch (ReflectiveOperationException e) {
+					Logger.getGlobal().log(Level.WARNING, "Unable to send packet to player", e);
+				}
 			}
-		});
+		} finally {
+			if(buffer != null) buffer.release();
+		}
+	}
+	
+	/**
+	 * Encodes a packet like the encoder of the server: the id of the packet in the play state followed by its content
+	 * @param packet the packet
+	 * @return the encoded packet or null if the packet could not be encoded
+	 */
+	@Nullable
+	private static ByteBuf encode(Object packet) {
+		ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+		try {
+			Object id = EncoderHandles.packetId.invoke(EncoderHandles.play, EncoderHandles.clientbound, packet);
+			// packet is not registered in the play state
+			if(id == null) throw new IllegalArgumentException(packet.getClass().getSimpleName() + " is not a play packet");
+			
+			Object serializer = EncoderHandles.serializerConstructor.newInstance(buffer);
+			EncoderHandles.writeVarInt.invoke(serializer, id);
+			EncoderHandles.write.invoke(packet, serializer);
+			return buffer;
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			buffer.release();
+			Logger.getGlobal().log(Level.FINE, e, () -> "Unable to encode " + packet.getClass().getSimpleName() + ". Send it to every player on its own");
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes several packets into the channel of a player and flushes it once
+	 * @param player the recipient
+	 * @param packets the packets
+	 */
+	static void write(Player player, Object[] packets) {
+		try {
+			getConnection(player).write(packets);
+		} catch (ReflectiveOperationException e) {
+			Logger.getGlobal().log(Level.WARNING, "Unable to send packets to player", e);
+		}
+	}
+	
+	/**
+	 * Sends several packets through the PlayerConnection of a player on the current thread
+	 * @param player the recipient
+	 * @param packets the packets
+	 */
+	static void send(Player player, Object[] packets) {
+		try {
+			getConnection(player).send(packets);
+		} catch (ReflectiveOperationException e) {
+			Logger.getGlobal().log(Level.WARNING, "Unable to send packets to player", e);
+		}
+	}
+	
+	/**
+	 * Sends a packet on the current thread
+	 * @param player the recipient
+	 * @param packet the packet
+	 */
+	static void send(Player player, Object packet) {
+		try {
+			getConnection(player).send(packet);
+		} catch (ReflectiveOperationException e) {
+			Logger.getGlobal().log(Level.WARNING, "Unable to send packet to player", e);
+		}
 	}
 	
 }
@@ -0,0 +1,216 @@
+package de.timeout.libs;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+
+import de.timeout.libs.config.ColoredLogger;
+
+/**
+ * Optional instrumentation of the reflective paths in {@link Reflections} and {@link BukkitReflections}.
+ * Counts invocations, failures and the cumulative time per resolved member.
+ * The instrumentation is disabled by default and only costs a volatile read while it is disabled.
+ * @author Timeout
+ *
+ */
+public final class ReflectionMetrics {
+
+	private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Libs-ReflectionMetrics");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static volatile boolean enabled;
+	private static ScheduledFuture<?> dumpTask;
+
+	private ReflectionMetrics() {
+		/* Util-Class does not need an instance */
+	}
+
+	/**
+	 * Checks if the instrumentation is enabled
+	 * @return true if the instrumentation is enabled, false otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the instrumentation at runtime. Already recorded values are kept
+	 * @param enabled true to enable the instrumentation, false to disable it
+	 */
+	public static void setEnabled(boolean enabled) {
+		ReflectionMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Deletes all recorded values
+	 */
+	public static void reset() {
+		counters.values().forEach(Counter::reset);
+	}
+
+	/**
+	 * Returns a snapshot of all recorded values sorted by the name of the member
+	 * @return an unmodifiable map with the name of the member as key and its values as value
+	 */
+	@NotNull
+	public static Map<String, Snapshot> snapshot() {
+		Map<String, Snapshot> snapshot = new TreeMap<>();
+		counters.forEach((member, counter) -> {
+			// ignore members without any calls
+			if(counter.invocations.sum() > 0) snapshot.put(member, counter.snapshot());
+		});
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * Starts to write a snapshot periodically into a logger. A running dump will be replaced
+	 * @param logger the logger which writes the snapshot. Cannot be null
+	 * @param period the period between two dumps. Must be positive
+	 * @param unit the unit of the period. Cannot be null
+	 * @throws IllegalArgumentException if an argument is invalid
+	 */
+	public static synchronized void startDump(@NotNull ColoredLogger logger, long period, @NotNull TimeUnit unit) {
+		// Validate
+		Validate.notNull(logger, "Logger cannot be null");
+		Validate.notNull(unit, "TimeUnit cannot be null");
+		Validate.isTrue(period > 0, "Period must be positive");
+
+		stopDump();
+		dumpTask = scheduler.scheduleAtFixedRate(() -> dump(logger), period, period, unit);
+	}
+
+	/**
+	 * Stops the periodic dump if it is running
+	 */
+	public static synchronized void stopDump() {
+		if(dumpTask != null) {
+			dumpTask.cancel(false);
+			dumpTask = null;
+		}
+	}
+
+	/**
+	 * Writes the current snapshot into a logger
+	 * @param logger the logger which writes the snapshot. Cannot be null
+	 */
+	public static void dump(@NotNull ColoredLogger logger) {
+		Map<String, Snapshot> snapshot = snapshot();
+		logger.log(Level.INFO, String.format("&7Reflection metrics of &e%d &7members:", snapshot.size()));
+		snapshot.forEach((member, values) -> logger.log(Level.INFO, String.format("&7%s: &e%d &7calls, &c%d &7failures, &a%.2f &7\u00b5s average",
+				member, values.getInvocations(), values.getFailures(), values.getAverageNanos() / 1000D)));
+	}
+
+	/**
+	 * Returns the counter of a certain member. The counter will be created if it does not exist yet
+	 * @param member the name of the member
+	 * @return the counter of the member
+	 */
+	@NotNull
+	static Counter counter(@NotNull String member) {
+		Counter counter = counters.get(member);
+		return counter != null ? counter : counters.computeIfAbsent(member, key -> new Counter());
+	}
+
+	/**
+	 * Contention free counters of a single member
+	 * @author Timeout
+	 *
+	 */
+	static final class Counter {
+
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+
+		/**
+		 * Records a single invocation
+		 * @param start the start time of the invocation in nanoseconds
+		 * @param failed true if the invocation failed, false otherwise
+		 */
+		void record(long start, boolean failed) {
+			nanos.add(System.nanoTime() - start);
+			invocations.increment();
+			if(failed) failures.increment();
+		}
+
+		private void reset() {
+			invocations.reset();
+			failures.reset();
+			nanos.reset();
+		}
+
+		private Snapshot snapshot() {
+			return new Snapshot(invocations.sum(), failures.sum(), nanos.sum());
+		}
+	}
+
+	/**
+	 * Represents the recorded values of a member at a certain time
+	 * @author Timeout
+	 *
+	 */
+	public static final class Snapshot {
+
+		private final long invocations;
+		private final long failures;
+		private final long totalNanos;
+
+		private Snapshot(long invocations, long failures, long totalNanos) {
+			this.invocations = invocations;
+			this.failures = failures;
+			this.totalNanos = totalNanos;
+		}
+
+		/**
+		 * Returns the number of invocations
+		 * @return the number of invocations
+		 */
+		public long getInvocations() {
+			return invocations;
+		}
+
+		/**
+		 * Returns the number of failed invocations
+		 * @return the number of failures
+		 */
+		public long getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Returns the cumulative time of all invocations
+		 * @return the time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * Returns the average time of a single invocation
+		 * @return the average time in nanoseconds
+		 */
+		public double getAverageNanos() {
+			return invocations > 0 ? (double) totalNanos / invocations : 0D;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Snapshot[invocations=%d, failures=%d, totalNanos=%d]", invocations, failures, totalNanos);
+		}
+	}
+}
@@ -3,11 +3,13 @@ package de.timeout.libs;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.ClassUtils;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.lang.reflect.FieldUtils;
@@ -15,6 +17,16 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class Reflections {
+	
+	/**
+	 * Index of all nested classes of a class. Built once per class on first access
+	 */
+	private static final ClassValue<NestedClassIndex> nestedClasses = new ClassValue<NestedClassIndex>() {
+		@Override
+		protected NestedClassIndex computeValue(Class<?> type) {
+			return new NestedClassIndex(type);
+		}
+	};
 			
 	protected Reflections() {}
 	
@@ -26,20 +38,15 @@ public class Reflections {
 	 */
 	@Nullable
 	public static Field getField(Class<?> clazz, String... names) {
-		// if names is not empty
-		if(names.length != 0) {
+		// run through names
+		for(String name : names) {
 			// get Field and set executable
-			Field field = FieldUtils.getField(clazz, names[0], true);
+			Field field = FieldUtils.getField(clazz, name, true);
 
-			// check if field was found
-			if(field != null) {
-				// return found field
-				return field;
-			} else {
-				// Field not found recursive execute without first element
-				return getField(clazz, (String[]) ArrayUtils.subarray(names, 1, names.length));
-			}
-		} else return null;
+			// return found field
+			if(field != null) return field;
+		}
+		return null;
 	}
 	
 	/**
@@ -55,14 +62,15 @@ public class Reflections {
 		Validate.notNull(clazz, "Class cannot be null");
 		Validate.notNull(fieldType, "FieldType cannot be null");
 		
-		// return null if the names length is null
-		if(names.length > 0) {
-			// try to get first Field
-			Field field = getField(clazz, fieldType, names[0]);
+		// run through names
+		for(String name : names) {
+			// try to get Field
+			Field field = getField(clazz, fieldType, name);
 			
-			// recursive search if field could not be found. Otherwise return field
-			return field == null ? getField(clazz, fieldType, (String[]) ArrayUtils.subarray(names, 1, names.length)) : field;
-		} else return null;
+			// return field if it could be found
+			if(field != null) return field;
+		}
+		return null;
 	}
 	
 	@Nullable
@@ -104,8 +112,8 @@ public class Reflections {
 	@Nullable
 	public static Object getValue(Field field, Object obj) {
 		try {
-			return FieldUtils.readField(field, obj, true);
-		} catch (IllegalAccessException e) {
+			return FieldAccessor.of(field).get(obj);
+		} catch (IllegalStateException e) {
 			Logger.getGlobal().log(Level.SEVERE, String.format("Could not get value from field %s in %s", field.getName(), obj.getClass().getSimpleName()), e);
 		}
 
@@ -123,10 +131,7 @@ public class Reflections {
 		Validate.notNull(overclass, "OverClass cannot be null");
 		Validate.notEmpty(classname, "Name of SubClass can neither be null nor empty!");
 		
-		return Arrays.stream(overclass.getClasses())
-			.filter(underclass -> underclass.getName().equalsIgnoreCase(overclass.getName() + "$" + classname))
-			.findAny()
-			.orElse(null);
+		return nestedClasses.get(overclass).find(classname);
 	}
 	
 	/**
@@ -156,10 +161,10 @@ public class Reflections {
 		Validate.notNull(obj, "Target cannot be null");
 
 		try {
-			FieldUtils.writeField(field, obj, value, true);
-		} catch (IllegalAccessException e) {
+			FieldAccessor.of(field).set(obj, value);
+		} catch (IllegalStateException e) {
 			Logger.getGlobal().log(Level.WARNING, String.format("Unable to write Value %s in Field %s of class %s"
-					, value != null ? value.toString() : "", field.getName(), obj.getClass().getName()));
+					, value != null ? value.toString() : "", field.getName(), obj.getClass().getName()), e);
 		}
 	}
 	
@@ -201,6 +206,55 @@ public class Reflections {
 		setValue(Objects.requireNonNull(getField(object, fieldName)), object, value);
 	}
 	
+	/**
+	 * Returns a cached accessor of a field, which reads and writes the field without reflective overhead
+	 * @param clazz the class which contains the field. Cannot be null
+	 * @param names the different names of the field. NMS-Fieldnames may changes in different versions
+	 * @return the accessor or null if the field cannot be found
+	 */
+	@Nullable
+	public static FieldAccessor getAccessor(@NotNull Class<?> clazz, String... names) {
+		return FieldAccessor.of(clazz, names);
+	}
+	
+	/**
+	 * Returns a cached invoker of a method, which executes the method without reflective overhead
+	 * @param clazz the class which has the method. Cannot be null
+	 * @param name the name of the method. Can neither be null nor empty
+	 * @param params the parameters of the method
+	 * @return the invoker or null if the method could not be found
+	 */
+	@Nullable
+	public static MethodInvoker getInvoker(@NotNull Class<?> clazz, @NotNull String name, Class<?>... params) {
+		return MethodInvoker.of(clazz, name, params);
+	}
+	
+	/**
+	 * Creates a precompiled plan which copies or snapshots certain fields of a class in one step
+	 * @param clazz the class which contains the fields. Cannot be null
+	 * @param names the names of the fields
+	 * @return the plan
+	 * @throws IllegalArgumentException if a field cannot be found or is static
+	 */
+	@NotNull
+	public static CopyPlan getCopyPlan(@NotNull Class<?> clazz, @NotNull String... names) {
+		return CopyPlan.of(clazz, names);
+	}
+	
+	/**
+	 * Binds an interface to a class. Every abstract method of the interface must be annotated with {@link NMSMethod}.
+	 * All methods are resolved immediately, so a missing method fails here instead of on every call.
+	 * @param type the interface you want to bind. Cannot be null
+	 * @param target the class which contains the methods. Cannot be null
+	 * @return the binding of the interface
+	 * @throws IllegalArgumentException if the type is not an interface
+	 * @throws IllegalStateException if at least one method could not be resolved
+	 */
+	@NotNull
+	public static <T> ReflectiveBinding<T> bind(@NotNull Class<T> type, @NotNull Class<?> target) {
+		return ReflectiveBinding.create(type, target, null);
+	}
+	
 	/**
 	 * Returns the method of a certain object due reflections
 	 * @param clazz the class which has the method. Cannot be null
@@ -226,4 +280,31 @@ public class Reflections {
 		
 		return null;
 	}
+	
+	/**
+	 * Lookup tables of the nested classes declared in a class
+	 * @author Timeout
+	 *
+	 */
+	private static final class NestedClassIndex {
+		
+		private final Map<String, Class<?>> exact = new HashMap<>();
+		private final Map<String, Class<?>> ignoreCase = new HashMap<>();
+		
+		private NestedClassIndex(Class<?> overclass) {
+			// declared classes contain public and non-public nested classes
+			String prefix = overclass.getName() + "$";
+			for(Class<?> underclass : overclass.getDeclaredClasses()) {
+				String name = underclass.getName().substring(prefix.length());
+				exact.put(name, underclass);
+				ignoreCase.putIfAbsent(name.toLowerCase(Locale.ROOT), underclass);
+			}
+		}
+		
+		@Nullable
+		private Class<?> find(String name) {
+			Class<?> underclass = exact.get(name);
+			return underclass != null ? underclass : ignoreCase.get(name.toLowerCase(Locale.ROOT));
+		}
+	}
 }
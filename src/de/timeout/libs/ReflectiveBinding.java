@@ -0,0 +1,287 @@
+package de.timeout.libs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.ClassUtils;
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an interface which is bound to a class by reflections.
+ * Every method of the interface is resolved once while binding, so a missing mapping fails immediately
+ * and every call afterwards is dispatched to a cached {@link MethodInvoker}.
+ *
+ * An example would be
+ * <code>
+ * &#64;NMSClass("PlayerConnection")
+ * interface Connection {
+ *     &#64;NMSMethod("sendPacket")
+ *     void send(Object packet);
+ * }
+ *
+ * BukkitReflections.bind(Connection.class).bindTo(playerConnection).send(packet);
+ * </code>
+ *
+ * @author Timeout
+ *
+ * @param <T> the type of the interface
+ */
+public final class ReflectiveBinding<T> {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	private final Class<T> type;
+	private final Class<?> target;
+	private final Map<Method, MethodInvoker> invokers;
+	private final Map<Method, MethodHandle> defaults;
+	private final boolean instanceMethods;
+
+	private T unbound;
+
+	private ReflectiveBinding(Class<T> type, Class<?> target, Map<Method, MethodInvoker> invokers, Map<Method, MethodHandle> defaults, boolean instanceMethods) {
+		this.type = type;
+		this.target = target;
+		this.invokers = invokers;
+		this.defaults = defaults;
+		this.instanceMethods = instanceMethods;
+	}
+
+	/**
+	 * Binds an interface to a target class. Every abstract method of the interface must be annotated with {@link NMSMethod}.
+	 * Default methods are executed on the proxy, so they can call the bound methods
+	 * @param type the interface you want to bind. Cannot be null
+	 * @param target the class which contains the methods. Cannot be null
+	 * @param version the server version which is used for {@link Remap}s. Remaps are ignored if the version is null
+	 * @return the binding
+	 * @throws IllegalArgumentException if the type is not an interface
+	 * @throws IllegalStateException if at least one method could not be resolved
+	 */
+	@NotNull
+	static <T> ReflectiveBinding<T> create(@NotNull Class<T> type, @NotNull Class<?> target, @Nullable String version) {
+		// Validate
+		Validate.notNull(type, "Interface cannot be null");
+		Validate.notNull(target, "Target class cannot be null");
+		Validate.isTrue(type.isInterface(), type.getName() + " is not an interface");
+
+		Map<Method, MethodInvoker> invokers = new HashMap<>();
+		Map<Method, MethodHandle> defaults = new HashMap<>();
+		List<String> unresolved = new ArrayList<>();
+		boolean instanceMethods = false;
+		// run through interface methods
+		for(Method method : type.getMethods()) {
+			// default methods call the implementation of the interface
+			if(method.isDefault()) {
+				defaults.put(method, unreflectDefault(method));
+				continue;
+			}
+			// ignore static methods
+			if(!Modifier.isAbstract(method.getModifiers())) continue;
+
+			Method resolved = resolve(method, target, version);
+			if(resolved != null) {
+				invokers.put(method, MethodInvoker.of(resolved));
+				instanceMethods |= !Modifier.isStatic(resolved.getModifiers());
+			} else unresolved.add(method.getName());
+		}
+
+		// fail at bind time if a mapping is missing
+		if(!unresolved.isEmpty())
+			throw new IllegalStateException(String.format("Unable to bind %s to %s. Unresolved methods: %s", type.getName(), target.getName(), unresolved));
+
+		return new ReflectiveBinding<>(type, target, invokers, defaults, instanceMethods);
+	}
+
+	/**
+	 * Creates a handle which calls the implementation of a default method without dispatching to the proxy again
+	 * @param method the default method
+	 * @return the handle of the type (Object proxy, Object[] args)Object
+	 * @throws IllegalStateException if the default method cannot be accessed
+	 */
+	private static MethodHandle unreflectDefault(Method method) {
+		Class<?> declaring = method.getDeclaringClass();
+		int count = method.getParameterCount();
+		try {
+			// adapt once, so a call neither binds nor boxes through invokeWithArguments
+			return privateLookup(declaring).unreflectSpecial(method, declaring)
+					.asType(MethodType.genericMethodType(count + 1))
+					.asSpreader(Object[].class, count);
+		} catch (ReflectiveOperationException | SecurityException e) {
+			throw new IllegalStateException(String.format("Unable to bind default method %s of %s", method.getName(), declaring.getName()), e);
+		}
+	}
+
+	private static MethodHandles.Lookup privateLookup(Class<?> clazz) throws ReflectiveOperationException {
+		try {
+			// Java 9 and above
+			Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+			return (MethodHandles.Lookup) privateLookupIn.invoke(null, clazz, MethodHandles.lookup());
+		} catch (NoSuchMethodException e) {
+			// Java 8 does not offer private lookups of other classes
+			Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+			constructor.setAccessible(true);
+			return constructor.newInstance(clazz, MethodHandles.Lookup.PRIVATE);
+		}
+	}
+
+	@Nullable
+	private static Method resolve(Method method, Class<?> target, @Nullable String version) {
+		NMSMethod mapping = method.getAnnotation(NMSMethod.class);
+		// only annotated methods can be resolved
+		if(mapping != null) {
+			// version dependent names are tried first
+			Set<String> names = new LinkedHashSet<>();
+			for(Remap remap : mapping.remap()) {
+				if(remap.version().equals(version)) names.add(remap.name());
+			}
+			names.addAll(Arrays.asList(mapping.value()));
+
+			for(String name : names) {
+				Method found = findMethod(method, target, name);
+				if(found != null) return found;
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Method findMethod(Method method, Class<?> target, String name) {
+		Method compatible = null;
+		// search in public and declared methods of the whole hierarchy
+		Set<Method> candidates = new LinkedHashSet<>(Arrays.asList(target.getMethods()));
+		for(Class<?> clazz = target; clazz != null; clazz = clazz.getSuperclass()) candidates.addAll(Arrays.asList(clazz.getDeclaredMethods()));
+
+		for(Method candidate : candidates) {
+			if(candidate.getName().equals(name) && isCompatible(method, candidate)) {
+				// exact matches win
+				if(Arrays.equals(method.getParameterTypes(), candidate.getParameterTypes())) return candidate;
+				// more than one compatible method is ambiguous
+				if(compatible != null && !Arrays.equals(compatible.getParameterTypes(), candidate.getParameterTypes()))
+					throw new IllegalStateException(String.format("Method %s is ambiguous in %s", name, target.getName()));
+				if(compatible == null) compatible = candidate;
+			}
+		}
+		return compatible;
+	}
+
+	private static boolean isCompatible(Method declaration, Method candidate) {
+		Class<?>[] declared = declaration.getParameterTypes();
+		Class<?>[] params = candidate.getParameterTypes();
+		// check parameters
+		if(declared.length != params.length) return false;
+		for(int i = 0; i < declared.length; i++) {
+			if(!isRelated(declared[i], params[i])) return false;
+		}
+		// check return type
+		return declaration.getReturnType() == void.class || ClassUtils.primitiveToWrapper(declaration.getReturnType())
+				.isAssignableFrom(ClassUtils.primitiveToWrapper(candidate.getReturnType()));
+	}
+
+	private static boolean isRelated(Class<?> a, Class<?> b) {
+		Class<?> first = ClassUtils.primitiveToWrapper(a);
+		Class<?> second = ClassUtils.primitiveToWrapper(b);
+		return first.isAssignableFrom(second) || second.isAssignableFrom(first);
+	}
+
+	/**
+	 * Returns an implementation of the interface which executes every method on a certain object
+	 * @param receiver the object which executes the methods. Must be an instance of the target class
+	 * @return the implementation of the interface
+	 * @throws IllegalArgumentException if the receiver is no instance of the target class
+	 */
+	@NotNull
+	public T bindTo(@NotNull Object receiver) {
+		// Validate
+		Validate.isTrue(target.isInstance(receiver), "Receiver must be an instance of " + target.getName());
+
+		return createProxy(receiver);
+	}
+
+	/**
+	 * Returns an implementation of the interface for static methods.
+	 * @return the implementation of the interface
+	 * @throws IllegalStateException if the interface is bound to at least one instance method
+	 */
+	@NotNull
+	public T unbound() {
+		// instance methods require a receiver
+		if(instanceMethods) throw new IllegalStateException(type.getName() + " contains instance methods. Use bindTo(Object) instead");
+
+		if(unbound == null) unbound = createProxy(null);
+		return unbound;
+	}
+
+	/**
+	 * Returns the class which is bound to the interface
+	 * @return the target class
+	 */
+	@NotNull
+	public Class<?> getTarget() {
+		return target;
+	}
+
+	private T createProxy(@Nullable Object receiver) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new BindingHandler(receiver)));
+	}
+
+	/**
+	 * Dispatches the calls of the proxy to the resolved invokers
+	 * @author Timeout
+	 *
+	 */
+	private class BindingHandler implements InvocationHandler {
+
+		private final Object receiver;
+
+		private BindingHandler(Object receiver) {
+			this.receiver = receiver;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			MethodInvoker invoker = invokers.get(method);
+			// call target method
+			if(invoker != null) {
+				try {
+					return invoker.invoke(receiver, args != null ? args : NO_ARGS);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+
+			// call default method on the proxy
+			MethodHandle implementation = defaults.get(method);
+			if(implementation != null) {
+				Object[] arguments = args != null ? args : NO_ARGS;
+				return (Object) implementation.invokeExact(proxy, arguments);
+			}
+
+			// methods of object
+			switch(method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return type.getSimpleName() + "[" + receiver + "]";
+			default:
+				throw new UnsupportedOperationException(method.getName() + " is not bound");
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package de.timeout.libs;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines the name of a member in a certain server version.
+ * Used inside {@link NMSMethod#remap()}
+ * @author Timeout
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface Remap {
+
+	/**
+	 * The server version, for example v1_16_R2
+	 * @return the server version
+	 */
+	String version();
+	
+	/**
+	 * The name of the member in this version
+	 * @return the name of the member
+	 */
+	String name();
+}
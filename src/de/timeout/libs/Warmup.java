@@ -0,0 +1,87 @@
+package de.timeout.libs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resolves the NMS-Handles of this library ahead of time.
+ * Every utility class keeps its handles in lazily initialized holder classes, so touching a class does not resolve
+ * anything on the main thread and a missing member only disables the feature which needs it.
+ * Call {@link Warmup#start()} while your plugin enables to initialize all holders on another thread.
+ * @author Timeout
+ *
+ */
+public final class Warmup {
+
+	/**
+	 * The holder classes of this library in the order they are initialized
+	 */
+	private static final String[] HOLDERS = {
+		"de.timeout.libs.Players$PlayerHandles",
+		"de.timeout.libs.Players$ContainerHandles",
+		"de.timeout.libs.Players$ConnectionHandles",
+		"de.timeout.libs.Players$ChannelHandles",
+		"de.timeout.libs.Players$EncoderHandles",
+		"de.timeout.libs.gui.GUI$TitleHandles",
+		"de.timeout.libs.gui.Titles$Handles",
+		"de.timeout.libs.gui.ComponentCache$Handles",
+		"de.timeout.libs.items.ItemStacks$CopyHandles",
+		"de.timeout.libs.items.ItemStacks$TagHandles",
+		"de.timeout.libs.items.ItemStacks$NameHandles",
+		"de.timeout.libs.items.PlayerSkull$MetaHandles",
+		"de.timeout.libs.items.PlayerSkull$BlockHandles",
+		"de.timeout.libs.profiles.GameProfileFetcher$Handles"
+	};
+
+	private Warmup() {
+		/* Util-Class does not need an instance */
+	}
+
+	/**
+	 * Initializes all holders asynchronously on a separate daemon thread
+	 * @return a future which completes with the resolution time in nanoseconds of every successfully initialized holder
+	 */
+	@NotNull
+	public static CompletableFuture<Map<String, Long>> start() {
+		return CompletableFuture.supplyAsync(Warmup::run, runnable -> {
+			Thread thread = new Thread(runnable, "Libs-Warmup");
+			thread.setDaemon(true);
+			thread.start();
+		});
+	}
+
+	/**
+	 * Initializes all holders on the current thread. Holders which are already initialized are not resolved again.
+	 * Failures are logged and do not affect other holders.
+	 * @return the resolution time in nanoseconds of every successfully initialized holder
+	 */
+	@NotNull
+	public static Map<String, Long> run() {
+		Map<String, Long> timings = new LinkedHashMap<>();
+		ClassLoader loader = Warmup.class.getClassLoader();
+
+		// run through holders
+		for(String holder : HOLDERS) {
+			long start = System.nanoTime();
+			try {
+				Class.forName(holder, true, loader);
+				timings.put(holder, System.nanoTime() - start);
+			} catch (ClassNotFoundException | LinkageError e) {
+				Logger.getGlobal().log(Level.WARNING, e, () -> "Unable to resolve " + holder + ". This feature is not available");
+			}
+		}
+
+		// report timings
+		timings.forEach((holder, nanos) -> Logger.getGlobal().log(Level.FINE, () -> String.format("Resolved %s in %.2f ms", holder, nanos / 1_000_000D)));
+		Logger.getGlobal().log(Level.INFO, () -> String.format("Resolved %d of %d NMS-Handles in %.2f ms", timings.size(), HOLDERS.length,
+				timings.values().stream().mapToLong(Long::longValue).sum() / 1_000_000D));
+
+		return Collections.unmodifiableMap(timings);
+	}
+}
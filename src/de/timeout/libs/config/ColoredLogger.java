@@ -117,7 +117,7 @@ public class ColoredLogger {
 	 * @param colorFormatter the formatter to translate messages
 	 * @return the converted message or null if the message is null
 	 */
-	private static String convertStringMessage(String message, char colorFormatter) {
+	static String convertStringMessage(String message, char colorFormatter) {
 		// Continur if String is neither not null nor empty
 		if(message != null && !message.isEmpty()) {
 			// copy of string
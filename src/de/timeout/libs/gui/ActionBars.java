@@ -0,0 +1,176 @@
+package de.timeout.libs.gui;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps action bars of players visible until they are hidden.
+ * All messages are evaluated in a single task once per tick. A message is only sent if it changed
+ * or if the client is about to fade it out, so a constant action bar costs one packet every {@link ActionBars#REFRESH_INTERVAL} ticks.
+ * @author Timeout
+ *
+ */
+public final class ActionBars {
+
+	/**
+	 * Number of ticks after which an unchanged action bar is sent again. The client displays an action bar for about 60 ticks
+	 */
+	public static final int REFRESH_INTERVAL = 40;
+
+	private static final Map<Player, ActionBar> actionbars = new ConcurrentHashMap<>();
+
+	private static BukkitTask task;
+	private static long currentTick;
+
+	private ActionBars() {
+		/* Util-Class does not need an instance */
+	}
+
+	/**
+	 * Shows a constant action bar to a player until it is replaced or hidden
+	 * @param player the player. Cannot be null
+	 * @param message the message. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void show(@NotNull Player player, @NotNull String message) {
+		// Validate
+		Validate.notNull(message, "Message cannot be null");
+
+		show(player, () -> message);
+	}
+
+	/**
+	 * Shows a changing action bar to a player until it is replaced or hidden.
+	 * The supplier is evaluated on the main thread once per tick. The action bar is sent only if the message changed.
+	 * If the supplier returns null nothing is sent in this tick
+	 * @param player the player. Cannot be null
+	 * @param message the supplier of the message. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	public static void show(@NotNull Player player, @NotNull Supplier<String> message) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+		Validate.notNull(message, "Message cannot be null");
+
+		// keep the last sent message, so an unchanged replacement is not sent again
+		actionbars.compute(player, (key, actionbar) -> {
+			if(actionbar == null) return new ActionBar(message);
+			actionbar.message = message;
+			return actionbar;
+		});
+		start();
+	}
+
+	/**
+	 * Stops showing the action bar of a player and clears it
+	 * @param player the player. Cannot be null
+	 * @throws IllegalArgumentException if the player is null
+	 */
+	public static void hide(@NotNull Player player) {
+		// Validate
+		Validate.notNull(player, "Player cannot be null");
+
+		// clear only if the player had an action bar
+		if(actionbars.remove(player) != null && player.isOnline()) Titles.sendActionBar(player, "");
+	}
+
+	/**
+	 * Checks if a player has a managed action bar
+	 * @param player the player
+	 * @return true if the player has an action bar of this class, false otherwise
+	 */
+	public static boolean isShown(@Nullable Player player) {
+		return player != null && actionbars.containsKey(player);
+	}
+
+	/**
+	 * Starts the tick task if it is not running
+	 */
+	private static synchronized void start() {
+		if(task == null) {
+			try {
+				Plugin plugin = JavaPlugin.getProvidingPlugin(ActionBars.class);
+				task = Bukkit.getScheduler().runTaskTimer(plugin, ActionBars::tick, 0L, 1L);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Unable to schedule action bars", e);
+			}
+		}
+	}
+
+	/**
+	 * Stops the tick task if there is no action bar left
+	 */
+	private static synchronized void stopIfIdle() {
+		if(actionbars.isEmpty() && task != null) {
+			task.cancel();
+			task = null;
+		}
+	}
+
+	/**
+	 * Evaluates all action bars and sends the changed or expiring ones. Runs once per tick on the main thread
+	 */
+	private static void tick() {
+		long tick = ++currentTick;
+
+		// run through action bars
+		for(Iterator<Map.Entry<Player, ActionBar>> iterator = actionbars.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry<Player, ActionBar> entry = iterator.next();
+			Player player = entry.getKey();
+
+			// remove players who left
+			if(player.isOnline()) {
+				entry.getValue().update(player, tick);
+			} else iterator.remove();
+		}
+
+		stopIfIdle();
+	}
+
+	/**
+	 * A managed action bar with its last sent message
+	 * @author Timeout
+	 *
+	 */
+	private static final class ActionBar {
+
+		private volatile Supplier<String> message;
+
+		private String lastMessage;
+		private long lastSent;
+
+		private ActionBar(Supplier<String> message) {
+			this.message = message;
+		}
+
+		private void update(Player player, long tick) {
+			String current;
+			try {
+				current = message.get();
+			} catch (RuntimeException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Exception in action bar supplier of " + player.getName(), e);
+				return;
+			}
+
+			// send only changed or expiring messages
+			if(current != null && (!Objects.equals(current, lastMessage) || tick - lastSent >= REFRESH_INTERVAL)) {
+				Titles.sendActionBar(player, current);
+				lastMessage = current;
+				lastSent = tick;
+			}
+		}
+	}
+}
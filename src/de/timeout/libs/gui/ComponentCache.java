@@ -0,0 +1,180 @@
+package de.timeout.libs.gui;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.JsonObject;
+
+import de.timeout.libs.BukkitReflections;
+import de.timeout.libs.MethodInvoker;
+import de.timeout.libs.Reflections;
+import de.timeout.libs.Warmup;
+
+/**
+ * Bounded cache of deserialized chat components. Messages which are sent again and again are converted
+ * into an IChatBaseComponent only once, so sending them only costs a lookup.
+ * The least recently used components are removed if the cache is full.
+ * @author Timeout
+ *
+ */
+public final class ComponentCache {
+
+	private static final int DEFAULT_SIZE = 1024;
+	private static final ComponentCache defaultCache = new ComponentCache(DEFAULT_SIZE);
+
+	private final LoadingCache<String, Object> components;
+	private final int maximumSize;
+
+	/**
+	 * Handles of the chat serializer. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class Handles {
+
+		private static final Class<?> ichatbasecomponentClass = BukkitReflections.getNMSClass("IChatBaseComponent");
+		private static final Class<?> chatserializerClass = Reflections.getSubClass(ichatbasecomponentClass, "ChatSerializer");
+
+		private static final @NotNull MethodInvoker serialize = Objects.requireNonNull(MethodInvoker.of(Objects.requireNonNull(chatserializerClass), "a", String.class));
+	}
+
+	/**
+	 * Creates a new cache
+	 * @param maximumSize the maximum number of cached components. Must be positive
+	 * @throws IllegalArgumentException if the size is not positive
+	 */
+	public ComponentCache(int maximumSize) {
+		// Validate
+		Validate.isTrue(maximumSize > 0, "Maximum size must be positive");
+
+		this.maximumSize = maximumSize;
+		this.components = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(new CacheLoader<String, Object>() {
+
+			@Override
+			public Object load(String text) throws Exception {
+				return Objects.requireNonNull(Handles.serialize.invoke(null, createJsonObject(text)));
+			}
+		});
+	}
+
+	/**
+	 * Returns the cache which is used by {@link Titles}
+	 * @return the default cache
+	 */
+	@NotNull
+	public static ComponentCache getDefault() {
+		return defaultCache;
+	}
+
+	/**
+	 * Returns the IChatBaseComponent of a text message. The component is created if it is not cached yet.
+	 * Components are shared, so they must not be modified
+	 * @param text the text of the message. Cannot be null
+	 * @return the component as Object
+	 * @throws ReflectiveOperationException if the component could not be created
+	 * @throws IllegalArgumentException if the text is null
+	 */
+	@NotNull
+	public Object getComponent(@NotNull String text) throws ReflectiveOperationException {
+		// Validate
+		Validate.notNull(text, "Text cannot be null");
+
+		try {
+			return components.get(text);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof ReflectiveOperationException) throw (ReflectiveOperationException) e.getCause();
+			throw new InvocationTargetException(e.getCause(), "Unable to create component");
+		} catch (UncheckedExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the IChatBaseComponent of a message template. Constant templates are cached,
+	 * the JSON of other templates is created with its pre-escaped literals and deserialized without the cache
+	 * @param template the template. Cannot be null
+	 * @param values the function which returns the value of a placeholder. Cannot be null
+	 * @return the component as Object
+	 * @throws ReflectiveOperationException if the component could not be created
+	 * @throws IllegalArgumentException if an argument is null
+	 */
+	@NotNull
+	public Object getComponent(@NotNull MessageTemplate template, @NotNull Function<? super String, ?> values) throws ReflectiveOperationException {
+		// Validate
+		Validate.notNull(template, "Template cannot be null");
+		Validate.notNull(values, "Values cannot be null");
+
+		// rendered messages of players would only displace shared messages
+		if(template.isConstant()) return getComponent(template.render(values));
+		return Objects.requireNonNull(Handles.serialize.invoke(null, template.renderJson(values)));
+	}
+
+	/**
+	 * Removes all cached components
+	 */
+	public void clear() {
+		components.invalidateAll();
+	}
+
+	/**
+	 * Returns the number of cached components
+	 * @return the size of the cache
+	 */
+	public long size() {
+		return components.size();
+	}
+
+	/**
+	 * Returns the maximum number of cached components
+	 * @return the maximum size of the cache
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns how often a component was found in the cache
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		return components.stats().hitCount();
+	}
+
+	/**
+	 * Returns how often a component had to be created
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return components.stats().missCount();
+	}
+
+	/**
+	 * Returns the ratio of hits to all lookups
+	 * @return the hit rate between 0 and 1. Is 1 if there was no lookup yet
+	 */
+	public double getHitRate() {
+		return components.stats().hitRate();
+	}
+
+	@Override
+	public String toString() {
+		CacheStats stats = components.stats();
+		return String.format("ComponentCache[size=%d/%d, hits=%d, misses=%d, evictions=%d]",
+				components.size(), maximumSize, stats.hitCount(), stats.missCount(), stats.evictionCount());
+	}
+
+	private static String createJsonObject(String msg) {
+		JsonObject obj = new JsonObject();
+		obj.addProperty("text", msg);
+		return obj.toString();
+	}
+}
@@ -0,0 +1,60 @@
+package de.timeout.libs.gui;
+
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Pattern of the background of a {@link GUI}. Decides which of the two background materials fills an empty slot
+ * @author Timeout
+ *
+ */
+public enum FillPattern {
+
+	/**
+	 * Every empty slot shows the primary background
+	 */
+	FULL {
+		@Override
+		boolean isSecondary(int row, int column, int rows) {
+			return false;
+		}
+	},
+
+	/**
+	 * Empty slots at the edge of the gui show the secondary background, all other empty slots the primary background
+	 */
+	BORDER {
+		@Override
+		boolean isSecondary(int row, int column, int rows) {
+			return row == 0 || row == rows - 1 || column == 0 || column == COLUMNS - 1;
+		}
+	},
+
+	/**
+	 * Empty slots alternate between the primary and the secondary background
+	 */
+	CHECKERBOARD {
+		@Override
+		boolean isSecondary(int row, int column, int rows) {
+			return (row + column) % 2 != 0;
+		}
+	};
+
+	private static final int COLUMNS = 9;
+
+	/**
+	 * Returns the background material of a slot
+	 * @param slot the slot
+	 * @param size the size of the gui
+	 * @param primary the primary background
+	 * @param secondary the secondary background
+	 * @return the material of the slot
+	 */
+	@NotNull
+	public Material resolve(int slot, int size, @NotNull Material primary, @NotNull Material secondary) {
+		int rows = Math.max(1, (size + COLUMNS - 1) / COLUMNS);
+		return isSecondary(slot / COLUMNS, slot % COLUMNS, rows) ? secondary : primary;
+	}
+
+	abstract boolean isSecondary(int row, int column, int rows);
+}
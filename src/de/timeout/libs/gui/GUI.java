@@ -1,6 +1,5 @@
 package de.timeout.libs.gui;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.function.Consumer;
@@ -16,8 +15,11 @@ import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
 
 import de.timeout.libs.BukkitReflections;
+import de.timeout.libs.FieldAccessor;
+import de.timeout.libs.MethodInvoker;
 import de.timeout.libs.Players;
 import de.timeout.libs.Reflections;
+import de.timeout.libs.Warmup;
 import de.timeout.libs.gui.event.ButtonClickEvent;
 import de.timeout.libs.gui.event.GUICloseEvent;
 import de.timeout.libs.gui.event.GUIOpenEvent;
@@ -29,25 +31,69 @@ import org.jetbrains.annotations.Nullable;
 public class GUI {
 		
 	private static final GUIHandler handler = new GUIHandler();
-
-	private static final @NotNull  Class<?> craftinventoryviewClass = BukkitReflections.getCraftBukkitClass("inventory.CraftInventoryView");
-	private static final @NotNull Class<?> chatmessageClass = BukkitReflections.getNMSClass("ChatMessage");
-	private static final @NotNull Class<?> containerClass = BukkitReflections.getNMSClass("Container");
-	private static final @NotNull Class<?> containersClass = BukkitReflections.getNMSClass("Containers");
-	private static final @NotNull Class<?> ichatbasecomponentClass = BukkitReflections.getNMSClass("IChatBaseComponent");
-	private static final @NotNull Class<?> packetplayoutopenwindowClass = BukkitReflections.getNMSClass("PacketPlayOutOpenWindow");
 	
-	private static final @NotNull Field titleField = Objects.requireNotNull(Reflections.getField(containerClass, "title"));
-	private static final @NotNull Field windowidField = Objects.requireNotNull(Reflections.getField(containerClass, "windowId"));
+	/**
+	 * Coalescing key of title updates. Only the latest title of a tick is sent
+	 */
+	private static final String TITLE_KEY = "GUI#title";
 	
+	/**
+	 * Background item of every material. The items are shared by all guis and must not be modified
+	 */
+	private static final Map<Material, ItemStack> backgrounds = new EnumMap<>(Material.class);
+
 	protected final List<InventoryView> viewers = new ArrayList<>();
 	protected final List<GUIInteractable<?>> interactors;
 	
+	/**
+	 * Slots which were changed since the last {@link GUI#updateGUI()}
+	 */
+	protected final BitSet dirtySlots = new BitSet();
+	
 	protected UUID uuid;
 	protected Material background;
+	protected Material secondaryBackground;
+	protected FillPattern pattern;
+	/**
+	 * The items of the gui. Empty slots hold the shared background items of {@link GUI#getBackground(Material)},
+	 * which must be replaced with {@link GUI#setItem(int, ItemStack)} instead of modified
+	 */
 	protected ItemStack[] design;
 	protected Consumer<GUICloseEvent> closeAction;
 	
+	/**
+	 * Handles to change the title of an open gui. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class TitleHandles {
+		
+		private static final Class<?> craftinventoryviewClass = BukkitReflections.getCraftBukkitClass("inventory.CraftInventoryView");
+		private static final Class<?> chatmessageClass = BukkitReflections.getNMSClass("ChatMessage");
+		private static final Class<?> containersClass = BukkitReflections.getNMSClass("Containers");
+		private static final Class<?> ichatbasecomponentClass = BukkitReflections.getNMSClass("IChatBaseComponent");
+		private static final Class<?> packetplayoutopenwindowClass = BukkitReflections.getNMSClass("PacketPlayOutOpenWindow");
+		
+		private static final @NotNull FieldAccessor titleField = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("Container", "title")));
+		private static final @NotNull FieldAccessor windowidField = FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("Container", "windowId")));
+		
+		private static final @NotNull MethodInvoker getHandle = Objects.requireNonNull(MethodInvoker.of(craftinventoryviewClass, "getHandle"));
+		private static final @NotNull MethodInvoker chatmessageConstructor = Objects.requireNonNull(MethodInvoker.ofConstructor(chatmessageClass, String.class));
+		private static final @NotNull MethodInvoker openwindowConstructor = Objects.requireNonNull(MethodInvoker.ofConstructor(packetplayoutopenwindowClass,
+				int.class, containersClass, ichatbasecomponentClass));
+		
+		/**
+		 * The container types GENERIC_9X1 to GENERIC_9X6. The index is the number of rows minus one
+		 */
+		private static final Object[] containerTypes = containerTypes();
+		
+		private static Object[] containerTypes() {
+			Object[] types = new Object[6];
+			for(int rows = 1; rows <= types.length; rows++) {
+				types[rows - 1] = FieldAccessor.of(Objects.requireNonNull(Reflections.getField(containersClass, "GENERIC_9X" + rows))).get(null);
+			}
+			return types;
+		}
+	}
+	
 	/**
 	 * This constructor creates a new gui with a certain design. Note that every itemstack is not a button.
 	 * You must initialize your buttons first with the Method 
@@ -63,18 +109,36 @@ public class GUI {
 
 	
 	public GUI(@NotNull Inventory design, Material background, Consumer<GUICloseEvent> event) {
+		this(design, background, background, FillPattern.FULL, event);
+	}
+	
+	/**
+	 * This constructor creates a new gui whose empty slots are filled with a pattern of two background materials
+	 * @param design the inventory design
+	 * @param primary the primary background. Gray glass panes if null
+	 * @param secondary the secondary background. The primary background if null
+	 * @param pattern the pattern of the background
+	 * @param event the close function or null
+	 * @throws IllegalArgumentException if the design or the pattern is null
+	 */
+	public GUI(@NotNull Inventory design, Material primary, Material secondary, @NotNull FillPattern pattern, Consumer<GUICloseEvent> event) {
 		// Validate
 		Validate.notNull(design, "Inventory-Design cannot be null");
+		Validate.notNull(pattern, "Pattern cannot be null");
 		
 		// initialize design and slot for Buttons
-		this.background = Optional.ofNullable(background).orElse(Material.GRAY_STAINED_GLASS_PANE);
+		this.background = Optional.ofNullable(primary).orElse(Material.GRAY_STAINED_GLASS_PANE);
+		this.secondaryBackground = Optional.ofNullable(secondary).orElse(this.background);
+		this.pattern = pattern;
 		this.design = new ItemStack[design.getSize()];
-		this.interactors = new ArrayList<>(design.getSize());
+		this.interactors = new ArrayList<>(Collections.nCopies(design.getSize(), null));
 		
 		// apply design
 		for(int i = 0; i < design.getSize(); i++) {
 			setItem(i, design.getItem(i));
 		}
+		// the design is written completely when an inventory is created, so there is nothing to update yet
+		dirtySlots.clear();
 
 		closeAction = event;
 	}
@@ -97,7 +161,14 @@ public class GUI {
 				
 				// add item
 				this.design[slot] = item;
-			} else this.design[slot] = new ItemStackBuilder().setType(background).setDisplayName(ChatColor.translateAlternateColorCodes('&', "&7")).toItemStack();
+			} else {
+				// insert shared background of this slot
+				this.interactors.set(slot, null);
+				this.design[slot] = getBackground(pattern.resolve(slot, design.length, background, secondaryBackground));
+			}
+			
+			// push at the next update
+			markChanged(slot);
 		} else throw new IndexOutOfBoundsException(String.format("Slot index out of range: %d", slot));
 	}
 	
@@ -114,6 +185,17 @@ public class GUI {
 		} else throw new IndexOutOfBoundsException(String.format("Slot index out of range: %d", slot));
 	}
 	
+	/**
+	 * Returns the item which a certain viewer sees on a slot. The listener uses this item to find the clicked button.
+	 * Override this method if viewers of this gui see different items
+	 * @param viewer the viewer of the gui
+	 * @param slot the position itself
+	 * @return the itemstack on that position
+	 */
+	protected ItemStack getItem(@NotNull HumanEntity viewer, int slot) {
+		return getItem(slot);
+	}
+	
 	/**
 	 * This method creates a new button on a certain position without changing the design at this position.
 	 * @param slot the slot of this button
@@ -172,10 +254,71 @@ public class GUI {
 	}
 	
 	/**
-	 * This method updates the gui for every player
+	 * This method updates the gui for every player.
+	 * Only the slots which were changed since the last update are written into the open inventories,
+	 * so the inventories stay open and the server sends a packet for every changed slot
 	 */
 	public void updateGUI() {
-		viewers.forEach(viewer -> this.openGUI(viewer.getPlayer(), viewer.getTitle()));
+		// ignore updates without changes
+		if(!dirtySlots.isEmpty()) {
+			// remove views which are not open anymore
+			viewers.removeIf(view -> !view.getPlayer().getOpenInventory().getTopInventory().equals(view.getTopInventory()));
+			
+			// write changed slots into open inventories. The inventory copies every item, so the design is not cloned
+			for(int slot = dirtySlots.nextSetBit(0); slot >= 0; slot = dirtySlots.nextSetBit(slot + 1)) {
+				ItemStack item = design[slot];
+				for(InventoryView view : viewers) view.getTopInventory().setItem(slot, item);
+			}
+			dirtySlots.clear();
+		}
+	}
+	
+	/**
+	 * Marks a slot as changed, so it is written into the open inventories at the next update.
+	 * Use this method if an item of the design was modified directly. Background slots share their item with all guis,
+	 * so they cannot be modified. Replace them with {@link GUI#setItem(int, ItemStack)} instead
+	 * @param slot the slot
+	 * @throws IndexOutOfBoundsException if the slot is out of range
+	 * @throws IllegalStateException if the slot holds a shared background item
+	 */
+	protected void markDirty(int slot) {
+		// check if slot is valid
+		if(slot >= 0 && slot < design.length) {
+			if(isBackground(design[slot])) throw new IllegalStateException(String.format("Slot %d holds a shared background. Use setItem instead", slot));
+			markChanged(slot);
+		} else throw new IndexOutOfBoundsException(String.format("Slot index out of range: %d", slot));
+	}
+	
+	/**
+	 * Returns the background item of a material. The item is created only once and shared by all guis,
+	 * so it must be cloned before it is modified
+	 * @param material the material of the background
+	 * @return the shared background item
+	 */
+	@NotNull
+	protected static ItemStack getBackground(@NotNull Material material) {
+		synchronized (backgrounds) {
+			return backgrounds.computeIfAbsent(material, type -> 
+				new ItemStackBuilder().setType(type).setDisplayName(ChatColor.translateAlternateColorCodes('&', "&7")).toItemStack());
+		}
+	}
+	
+	private static boolean isBackground(ItemStack item) {
+		synchronized (backgrounds) {
+			return item != null && backgrounds.get(item.getType()) == item;
+		}
+	}
+	
+	private void markChanged(int slot) {
+		dirtySlots.set(slot);
+	}
+	
+	/**
+	 * Removes the view of a closed inventory. Called by the listener when a viewer closes this gui
+	 * @param view the view of the closed inventory
+	 */
+	void onClose(@NotNull InventoryView view) {
+		viewers.remove(view);
 	}
 	
 	/**
@@ -187,14 +330,16 @@ public class GUI {
 		// check if event is not cancelled
 		GUIOpenEvent event = handler.onGUIOpen(player, this, name);
 		if(!event.isCancelled()) {
-			// open inventory
-			InventoryView view = event.getPlayer().openInventory(createGUI(event.getName()));
+			// open inventory with a holder of this session
+			GUIHolder holder = new GUIHolder(this, event.getPlayer().getUniqueId());
+			InventoryView view = event.getPlayer().openInventory(createGUI(event.getName(), holder));
 			
-			// if view is not null
-			if(view != null) {		
+			// if view is not null and was not closed while opening
+			if(view != null && event.getPlayer().getOpenInventory().getTopInventory().equals(view.getTopInventory())) {
 				// add to viewers if all succeed 
 				this.viewers.add(view);
-			} else handler.onGUIOpenAbort(event.getPlayer());
+				handler.onGUIOpened(holder);
+			}
 		}
 	}
 	
@@ -211,7 +356,21 @@ public class GUI {
 	 * @return the design of the gui
 	 */
 	public Inventory getDesign() {
-		return createGUI(null);
+		return createGUI(null, null);
+	}
+	
+	/**
+	 * Returns the gui which a player has open. This method can be called from every thread
+	 * @param viewer the unique id of the player
+	 * @return the open gui or null if the player does not have a gui open
+	 * @throws IllegalArgumentException if the unique id is null
+	 */
+	@Nullable
+	public static GUI getOpenGUI(@NotNull UUID viewer) {
+		// Validate
+		Validate.notNull(viewer, "Viewer cannot be null");
+		
+		return handler.getOpenGUI(viewer);
 	}
 	
 	/**
@@ -233,13 +392,15 @@ public class GUI {
 	/**
 	 * Creates a new gui of this type with a new name
 	 * @param name the name of the gui
+	 * @param holder the holder of the session or null if the inventory is not opened as gui
 	 * @return the gui itself
 	 */
-	private Inventory createGUI(String name) {
+	private Inventory createGUI(String name, GUIHolder holder) {
 		// Create new inventory
-		Inventory inv = Bukkit.createInventory(null, design.length, Optional.ofNullable(name).orElse(""));
-		// add all designs to inv
-		for(int i = 0; i < design.length; i++) inv.setItem(i, getItem(i));
+		Inventory inv = Bukkit.createInventory(holder, design.length, Optional.ofNullable(name).orElse(""));
+		if(holder != null) holder.setInventory(inv);
+		// add all designs to inv. The inventory copies every item, so the design is not cloned
+		inv.setContents(design);
 		
 		return inv;
 	}
@@ -274,7 +435,7 @@ public class GUI {
 		if(gui != null) {
 			try {
 				// create IChatComponent for title
-				Object chatComponent = chatmessageClass.getConstructor(String.class).newInstance(title);
+				Object chatComponent = TitleHandles.chatmessageConstructor.newInstance(title);
 			
 				// change name in NMS
 				changeNMSTitle(gui, chatComponent);
@@ -282,23 +443,13 @@ public class GUI {
 				// get ActiveContainer
 				Object activeContainer = Players.getActiveContainer(viewer);
 				// create update packet
-				Object packet = packetplayoutopenwindowClass
-						.getConstructor(int.class, containersClass, ichatbasecomponentClass)
-						.newInstance(((Integer) Reflections.getValue(windowidField, activeContainer)), getContainerType(), chatComponent);
+				Object packet = TitleHandles.openwindowConstructor
+						.newInstance(TitleHandles.windowidField.get(activeContainer), getContainerType(), chatComponent);
 				
-				// send packet
-				Players.sendPacket(viewer, packet);
-				viewer.updateInventory();
-			} catch (InstantiationException e) {
-				Bukkit.getLogger().log(Level.SEVERE, "Unable to instantiate IChatBaseComponent", e);
-			} catch (IllegalAccessException e) {
-				Bukkit.getLogger().log(Level.WARNING, "Unable to receive access to constructor ChatMessage(String)", e);
+				// send packet at the next tick and resend the items of the reopened window afterwards
+				Players.queuePacket(viewer, TITLE_KEY, packet, viewer::updateInventory);
 			} catch (InvocationTargetException e) {
-				Bukkit.getLogger().log(Level.WARNING, "Invalid target constructor ChatMessage(String)", e);
-			} catch (NoSuchMethodException e) {
-				Bukkit.getLogger().log(Level.WARNING, "Unable to get constructor ChatMessage(String)", e);
-			} catch (SecurityException e) {
-				Bukkit.getLogger().log(Level.WARNING, "SecurityException while updating title in InventoryView.", e);
+				Bukkit.getLogger().log(Level.WARNING, "Unable to create packet to update the title of the gui", e);
 			} catch (ReflectiveOperationException e) {
 				Bukkit.getLogger().log(Level.WARNING, "Unable to send packet to player", e);
 			}
@@ -313,24 +464,20 @@ public class GUI {
 	private void changeNMSTitle(InventoryView view, Object titleComponent) {
 		try {
 			// get nms-container
-			Object container = craftinventoryviewClass.getMethod("getHandle").invoke(view);
+			Object container = TitleHandles.getHandle.invoke(view);
 			
 			// insert chatcomponent into container
-			Reflections.setValue(titleField, container, titleComponent);
-		} catch (IllegalAccessException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Unable to access method CraftInventoryView#getHandle", e);
+			TitleHandles.titleField.set(container, titleComponent);
 		} catch (InvocationTargetException e) {
 			Bukkit.getLogger().log(Level.WARNING, "Invalid target: CraftInventoryView#getHandle", e);
-		} catch (NoSuchMethodException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Method CraftInventoryView#getHandle does not exists", e);
-		} catch (SecurityException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Unhandled Security exception inside JVM. Cannot change title of gui", e);
+		} catch (IllegalStateException e) {
+			Bukkit.getLogger().log(Level.WARNING, "Unable to change title of gui", e);
 		}
 	}
 	
 	private Object getContainerType() {
-		// get Field of current size
-		return Reflections.getField(containersClass, String.format("GENERIC_9X%d", design.length / 9L));
+		// get type of current size
+		return TitleHandles.containerTypes[design.length / 9 - 1];
 	}
 	
 	/**
@@ -1,8 +1,9 @@
 package de.timeout.libs.gui;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 
@@ -13,6 +14,8 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -20,10 +23,14 @@ import de.timeout.libs.config.UTFConfig;
 import de.timeout.libs.gui.event.ButtonClickEvent;
 import de.timeout.libs.gui.event.GUICloseEvent;
 import de.timeout.libs.gui.event.GUIOpenEvent;
+import org.jetbrains.annotations.Nullable;
 
 class GUIHandler implements Listener {
 
-	private final Map<HumanEntity, GUI> openGUIs = new HashMap<>();
+	/**
+	 * The holder of the open gui of every player. Every opened inventory has its own holder. Readable from every thread
+	 */
+	private final Map<UUID, GUIHolder> openGUIs = new ConcurrentHashMap<>();
 	
 	public GUIHandler() {
 		try {
@@ -53,34 +60,40 @@ class GUIHandler implements Listener {
 	
 	@EventHandler
 	public void onClose(InventoryCloseEvent event) {
-		// get player and gui if exists
-		HumanEntity player = event.getPlayer();
-		GUI gui = openGUIs.remove(player);
+		// get gui from inventory if exists
+		GUIHolder holder = getHolder(event.getInventory());
 		
-		// check if player has an gui open
-		if(gui != null) {
+		// check if player closes a gui
+		if(holder != null) {
+			GUI gui = holder.getGUI();
+			// remove this session only. A reopened gui has its own holder
+			openGUIs.remove(event.getPlayer().getUniqueId(), holder);
+			gui.onClose(event.getView());
+			
 			// trigger close event
 			GUICloseEvent guiEvent = new GUICloseEvent(event, gui);
 			Bukkit.getPluginManager().callEvent(guiEvent);
 			
-			// call close function
-			gui.closeAction.accept(guiEvent);
+			// call close function if exists
+			if(gui.closeAction != null) gui.closeAction.accept(guiEvent);
 		}
 	}
 	
 	@EventHandler
 	public void onClick(InventoryClickEvent event) {
-		// get player and gui
-		HumanEntity player = event.getWhoClicked();
-		GUI gui = openGUIs.get(player);
+		// get gui from top inventory
+		Inventory top = event.getView().getTopInventory();
+		GUIHolder holder = getHolder(top);
 		
 		// check if player sees gui && clicked on it as well
-		if(gui != null && event.getView().getTopInventory().equals(event.getClickedInventory())) {
+		if(holder != null && top.equals(event.getClickedInventory())) {
+			GUI gui = holder.getGUI();
+			
 			// cancel event (Deny result is safer than cancel)
 			event.setResult(Result.DENY);
 
 			// get item
-			ItemStack button = gui.getItem(event.getSlot());
+			ItemStack button = gui.getItem(event.getWhoClicked(), event.getSlot());
 			// check if its a button
 			if (button instanceof Button) {
 				// call event
@@ -97,7 +110,7 @@ class GUIHandler implements Listener {
 	}
 	
 	/**
-	 * Registers the player in listener.
+	 * Calls the open event of a gui.
 	 * Is called after {@link GUI#openGUI(HumanEntity, String)} was called
 	 * @param viewer the player
 	 * @param gui the gui
@@ -109,19 +122,38 @@ class GUIHandler implements Listener {
 		GUIOpenEvent event = new GUIOpenEvent(viewer, gui, name);
 		Bukkit.getPluginManager().callEvent(event);
 		
-		// add to list if player opens the gui successfully
-		if(!event.isCancelled()) this.openGUIs.put(viewer, gui);
-		
 		return event;
 	}
 	
 	/**
-	 * Aborts the gui open process.
-	 * This method is called if InventoryOpenEvent is cancelled by another plugin
+	 * Registers the session of an opened gui.
+	 * This method is called after the inventory was opened, so closing the previous inventory cannot remove the new session
 	 * 
-	 * @param viewer the viewer of the gui
+	 * @param holder the holder of the opened inventory
+	 */
+	public void onGUIOpened(GUIHolder holder) {
+		this.openGUIs.put(holder.getViewer(), holder);
+	}
+	
+	/**
+	 * Returns the gui which a player has open. Can be called from every thread
+	 * @param viewer the unique id of the player
+	 * @return the open gui or null if the player does not have a gui open
+	 */
+	@Nullable
+	public GUI getOpenGUI(UUID viewer) {
+		GUIHolder holder = openGUIs.get(viewer);
+		return holder != null ? holder.getGUI() : null;
+	}
+	
+	/**
+	 * Returns the holder of an inventory if the inventory belongs to a gui
+	 * @param inventory the inventory
+	 * @return the holder or null if the inventory is not a gui
 	 */
-	public void onGUIOpenAbort(HumanEntity viewer) {
-		this.openGUIs.remove(viewer);
+	@Nullable
+	private static GUIHolder getHolder(@Nullable Inventory inventory) {
+		InventoryHolder holder = inventory != null ? inventory.getHolder() : null;
+		return holder instanceof GUIHolder ? (GUIHolder) holder : null;
 	}
 }
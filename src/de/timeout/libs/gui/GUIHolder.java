@@ -0,0 +1,53 @@
+package de.timeout.libs.gui;
+
+import java.util.UUID;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Holder of an inventory which was opened by a {@link GUI}.
+ * Every opened inventory has its own holder, so the gui and its viewer can be read directly from the inventory of an event
+ * @author Timeout
+ *
+ */
+public final class GUIHolder implements InventoryHolder {
+
+	private final GUI gui;
+	private final UUID viewer;
+
+	private Inventory inventory;
+
+	GUIHolder(@NotNull GUI gui, @NotNull UUID viewer) {
+		this.gui = gui;
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Returns the gui of this inventory
+	 * @return the gui
+	 */
+	@NotNull
+	public GUI getGUI() {
+		return gui;
+	}
+
+	/**
+	 * Returns the unique id of the player this inventory was opened for
+	 * @return the unique id of the viewer
+	 */
+	@NotNull
+	public UUID getViewer() {
+		return viewer;
+	}
+
+	@Override
+	public Inventory getInventory() {
+		return inventory;
+	}
+
+	void setInventory(@NotNull Inventory inventory) {
+		this.inventory = inventory;
+	}
+}
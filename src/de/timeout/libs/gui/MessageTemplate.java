@@ -0,0 +1,217 @@
+package de.timeout.libs.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a message with placeholders like "Welcome {player}, rank {rank}".
+ * The message is parsed once into literal and placeholder segments. The literals are escaped for JSON in advance,
+ * so rendering a message for a player only appends its segments into a reused buffer and escapes the values of the placeholders.
+ * Placeholders without a value stay in the message. Templates are immutable and thread-safe.
+ * @author Timeout
+ *
+ */
+public final class MessageTemplate {
+
+	private static final int BUFFER_SIZE = 256;
+	private static final int MAX_BUFFER_SIZE = 8192;
+
+	private static final String JSON_PREFIX = "{\"text\":\"";
+	private static final String JSON_SUFFIX = "\"}";
+
+	private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+	private final String pattern;
+	private final String[] literals;
+	private final String[] escapedLiterals;
+	private final String[] placeholders;
+	private final String[] rawPlaceholders;
+
+	private MessageTemplate(String pattern, List<String> literals, List<String> placeholders) {
+		this.pattern = pattern;
+		this.literals = literals.toArray(new String[0]);
+		this.placeholders = placeholders.toArray(new String[0]);
+		this.escapedLiterals = new String[this.literals.length];
+		this.rawPlaceholders = new String[this.placeholders.length];
+
+		// prepare constant parts
+		for(int i = 0; i < this.literals.length; i++) {
+			StringBuilder builder = new StringBuilder(this.literals[i].length());
+			escape(this.literals[i], builder);
+			escapedLiterals[i] = builder.toString();
+		}
+		for(int i = 0; i < this.placeholders.length; i++) rawPlaceholders[i] = '{' + this.placeholders[i] + '}';
+	}
+
+	/**
+	 * Parses a message into a template. Placeholders are names in curly brackets
+	 * @param pattern the message. Cannot be null
+	 * @return the template
+	 * @throws IllegalArgumentException if the message is null
+	 */
+	@NotNull
+	public static MessageTemplate compile(@NotNull String pattern) {
+		// Validate
+		Validate.notNull(pattern, "Pattern cannot be null");
+
+		List<String> literals = new ArrayList<>();
+		List<String> placeholders = new ArrayList<>();
+
+		// split into segments. Unclosed brackets are part of the literal
+		StringBuilder literal = new StringBuilder();
+		int index = 0;
+		while(index < pattern.length()) {
+			int open = pattern.indexOf('{', index);
+			int close = open != -1 ? pattern.indexOf('}', open + 1) : -1;
+			if(close == -1) {
+				literal.append(pattern, index, pattern.length());
+				break;
+			}
+
+			literal.append(pattern, index, open);
+			literals.add(literal.toString());
+			placeholders.add(pattern.substring(open + 1, close));
+			literal.setLength(0);
+			index = close + 1;
+		}
+		literals.add(literal.toString());
+
+		return new MessageTemplate(pattern, literals, placeholders);
+	}
+
+	/**
+	 * Renders the message with the values of a map
+	 * @param values the values of the placeholders. Cannot be null
+	 * @return the message
+	 * @throws IllegalArgumentException if the map is null
+	 */
+	@NotNull
+	public String render(@NotNull Map<String, ?> values) {
+		// Validate
+		Validate.notNull(values, "Values cannot be null");
+
+		return render(values::get);
+	}
+
+	/**
+	 * Renders the message with the values of a function
+	 * @param values the function which returns the value of a placeholder or null if the placeholder has no value. Cannot be null
+	 * @return the message
+	 * @throws IllegalArgumentException if the function is null
+	 */
+	@NotNull
+	public String render(@NotNull Function<? super String, ?> values) {
+		// Validate
+		Validate.notNull(values, "Values cannot be null");
+
+		StringBuilder builder = buffer();
+		builder.append(literals[0]);
+		for(int i = 0; i < placeholders.length; i++) {
+			Object value = values.apply(placeholders[i]);
+			builder.append(value != null ? value.toString() : rawPlaceholders[i]).append(literals[i + 1]);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Renders the message as JSON text component. Only the values of the placeholders are escaped
+	 * @param values the function which returns the value of a placeholder. Cannot be null
+	 * @return the message as JSON
+	 */
+	@NotNull
+	String renderJson(@NotNull Function<? super String, ?> values) {
+		StringBuilder builder = buffer();
+		builder.append(JSON_PREFIX).append(escapedLiterals[0]);
+		for(int i = 0; i < placeholders.length; i++) {
+			Object value = values.apply(placeholders[i]);
+			escape(value != null ? value.toString() : rawPlaceholders[i], builder);
+			builder.append(escapedLiterals[i + 1]);
+		}
+		return builder.append(JSON_SUFFIX).toString();
+	}
+
+	/**
+	 * Returns the buffer of the current thread. Buffers which grew too large are replaced
+	 * @return an empty buffer
+	 */
+	private static StringBuilder buffer() {
+		StringBuilder builder = buffers.get();
+		if(builder.capacity() > MAX_BUFFER_SIZE) {
+			builder = new StringBuilder(BUFFER_SIZE);
+			buffers.set(builder);
+		} else builder.setLength(0);
+		return builder;
+	}
+
+	/**
+	 * Appends a text as content of a JSON string
+	 * @param text the text
+	 * @param builder the target
+	 */
+	private static void escape(String text, StringBuilder builder) {
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch(c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				// remaining control characters
+				if(c < 0x20) {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else builder.append(c);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Checks if this template has no placeholders
+	 * @return true if the message is always the same, false otherwise
+	 */
+	public boolean isConstant() {
+		return placeholders.length == 0;
+	}
+
+	/**
+	 * Returns the names of the placeholders in the order they appear
+	 * @return an unmodifiable list of the names
+	 */
+	@NotNull
+	public List<String> getPlaceholders() {
+		return Collections.unmodifiableList(Arrays.asList(placeholders));
+	}
+
+	/**
+	 * Returns the message this template was compiled from
+	 * @return the message
+	 */
+	@NotNull
+	public String getPattern() {
+		return pattern;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
@@ -0,0 +1,402 @@
+package de.timeout.libs.gui;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import de.timeout.libs.gui.event.GUICloseEvent;
+
+/**
+ * Represents a gui which shows a large list of entries page by page.
+ * The design of the gui is the frame of every page. The entries are loaded from a {@link PageSource} and rendered into the content slots
+ * only for the page a viewer actually sees. The neighbouring pages are loaded in advance, and changing the page writes the new entries
+ * into the open inventory instead of opening a new one. So every viewer only keeps up to three pages in memory, whatever the size of the list.
+ * @author Timeout
+ *
+ * @param <T> the type of the entries
+ */
+public class PagedGUI<T> extends GUI {
+
+	private final PageSource<T> source;
+	private final Function<? super T, ? extends ItemStack> renderer;
+	private final int[] contentSlots;
+	private final BitSet contentMask = new BitSet();
+
+	private final Map<UUID, ViewerState> states = new ConcurrentHashMap<>();
+
+	/**
+	 * Source of the entries of a paged gui
+	 * @author Timeout
+	 *
+	 * @param <T> the type of the entries
+	 */
+	@FunctionalInterface
+	public interface PageSource<T> {
+
+		/**
+		 * Loads a part of the list. This method is called on the main thread, so the entries should be loaded asynchronously
+		 * @param offset the index of the first entry
+		 * @param limit the maximum number of entries
+		 * @return a future which completes with the entries. Less than limit entries mark the end of the list
+		 */
+		@NotNull
+		CompletableFuture<List<T>> fetch(int offset, int limit);
+
+		/**
+		 * Creates a source of a list which is already in memory
+		 * @param entries the entries. Cannot be null
+		 * @return the source
+		 * @throws IllegalArgumentException if the list is null
+		 */
+		@NotNull
+		static <T> PageSource<T> of(@NotNull List<T> entries) {
+			// Validate
+			Validate.notNull(entries, "Entries cannot be null");
+
+			return (offset, limit) -> CompletableFuture.completedFuture(offset < entries.size() ?
+					entries.subList(offset, Math.min(entries.size(), offset + limit)) : Collections.emptyList());
+		}
+	}
+
+	/**
+	 * Creates a new paged gui
+	 * @param design the frame of every page
+	 * @param contentSlots the slots which show the entries in this order. Must not be empty
+	 * @param source the source of the entries. Cannot be null
+	 * @param renderer the function which creates the item of an entry. Return a {@link Button} to make an entry clickable. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null or a slot is out of range
+	 */
+	public PagedGUI(@NotNull Inventory design, @NotNull int[] contentSlots, @NotNull PageSource<T> source, @NotNull Function<? super T, ? extends ItemStack> renderer) {
+		this(design, Material.GRAY_STAINED_GLASS_PANE, null, contentSlots, source, renderer);
+	}
+
+	/**
+	 * Creates a new paged gui
+	 * @param design the frame of every page
+	 * @param background the background of the gui
+	 * @param event the close function or null
+	 * @param contentSlots the slots which show the entries in this order. Must not be empty
+	 * @param source the source of the entries. Cannot be null
+	 * @param renderer the function which creates the item of an entry. Return a {@link Button} to make an entry clickable. Cannot be null
+	 * @throws IllegalArgumentException if an argument is null or a slot is out of range
+	 */
+	public PagedGUI(@NotNull Inventory design, Material background, Consumer<GUICloseEvent> event, @NotNull int[] contentSlots,
+			@NotNull PageSource<T> source, @NotNull Function<? super T, ? extends ItemStack> renderer) {
+		super(design, background, event);
+		// Validate
+		Validate.isTrue(contentSlots != null && contentSlots.length > 0, "Content slots cannot be empty");
+		Validate.notNull(source, "Source cannot be null");
+		Validate.notNull(renderer, "Renderer cannot be null");
+
+		this.contentSlots = contentSlots.clone();
+		this.source = source;
+		this.renderer = renderer;
+
+		// validate slots
+		for(int slot : this.contentSlots) {
+			Validate.isTrue(slot >= 0 && slot < this.design.length, String.format("Slot index out of range: %d", slot));
+			contentMask.set(slot);
+		}
+	}
+
+	@Override
+	public void openGUI(HumanEntity player, String name) {
+		super.openGUI(player, name);
+
+		// show first page if the open inventory belongs to this gui
+		InventoryView view = getView(player);
+		if(view != null && isSession(view.getTopInventory().getHolder())) {
+			ViewerState state = new ViewerState(view);
+			states.put(player.getUniqueId(), state);
+			showPage(state, 0);
+		}
+	}
+
+	/**
+	 * Shows the next page to a viewer. Does nothing if the viewer is on the last page
+	 * @param viewer the viewer. Cannot be null
+	 * @throws IllegalArgumentException if the viewer is null
+	 */
+	public void nextPage(@NotNull HumanEntity viewer) {
+		ViewerState state = getState(viewer);
+		if(state != null && !state.isLastPage()) showPage(state, state.page + 1);
+	}
+
+	/**
+	 * Shows the previous page to a viewer. Does nothing if the viewer is on the first page
+	 * @param viewer the viewer. Cannot be null
+	 * @throws IllegalArgumentException if the viewer is null
+	 */
+	public void previousPage(@NotNull HumanEntity viewer) {
+		ViewerState state = getState(viewer);
+		if(state != null && state.page > 0) showPage(state, state.page - 1);
+	}
+
+	/**
+	 * Shows a certain page to a viewer. Pages behind the end of the list fall back to the last page
+	 * @param viewer the viewer. Cannot be null
+	 * @param page the index of the page starting with 0
+	 * @throws IllegalArgumentException if the viewer is null or the page is negative
+	 */
+	public void showPage(@NotNull HumanEntity viewer, int page) {
+		// Validate
+		Validate.isTrue(page >= 0, "Page cannot be negative");
+
+		ViewerState state = getState(viewer);
+		if(state != null) showPage(state, page);
+	}
+
+	/**
+	 * Returns the page which a viewer sees
+	 * @param viewer the viewer. Cannot be null
+	 * @return the index of the page or -1 if the viewer does not have this gui open
+	 * @throws IllegalArgumentException if the viewer is null
+	 */
+	public int getPage(@NotNull HumanEntity viewer) {
+		ViewerState state = getState(viewer);
+		return state != null ? state.page : -1;
+	}
+
+	/**
+	 * Reloads the current page of every viewer. Call this method after the entries of the source were changed.
+	 * Can be called from every thread. The pages are reloaded on the main thread
+	 */
+	public void refresh() {
+		MainThread.executor.execute(() -> states.values().forEach(state -> {
+			state.clearPrefetch();
+			showPage(state, state.page);
+		}));
+	}
+
+	/**
+	 * Returns the number of entries on a page
+	 * @return the size of a page
+	 */
+	public int getPageSize() {
+		return contentSlots.length;
+	}
+
+	@Override
+	public void updateGUI() {
+		// content slots show the entries of each viewer
+		dirtySlots.andNot(contentMask);
+		super.updateGUI();
+	}
+
+	@Override
+	protected ItemStack getItem(@NotNull HumanEntity viewer, int slot) {
+		ViewerState state = states.get(viewer.getUniqueId());
+		// return entry of the viewer
+		if(state != null && contentMask.get(slot)) {
+			ItemStack item = state.items.get(slot);
+			if(item != null) return item;
+		}
+		return super.getItem(viewer, slot);
+	}
+
+	@Override
+	void onClose(@NotNull InventoryView view) {
+		super.onClose(view);
+
+		// remove state of this view only
+		ViewerState state = states.get(view.getPlayer().getUniqueId());
+		if(state != null && state.view == view) states.remove(view.getPlayer().getUniqueId(), state);
+	}
+
+	private boolean isSession(@Nullable InventoryHolder holder) {
+		return holder instanceof GUIHolder && ((GUIHolder) holder).getGUI() == this;
+	}
+
+	@Nullable
+	private ViewerState getState(@NotNull HumanEntity viewer) {
+		// Validate
+		Validate.notNull(viewer, "Viewer cannot be null");
+
+		return states.get(viewer.getUniqueId());
+	}
+
+	/**
+	 * Loads a page and writes its entries into the open inventory of a viewer. The neighbouring pages are loaded afterwards
+	 * @param state the state of the viewer
+	 * @param page the page
+	 */
+	private void showPage(ViewerState state, int page) {
+		state.page = page;
+		state.fetch(page).whenCompleteAsync((entries, error) -> {
+			// ignore pages which were replaced or closed in the meantime
+			if(state.page != page || states.get(state.view.getPlayer().getUniqueId()) != state) return;
+
+			if(error == null) {
+				// fall back to the previous page if the list ends on the last page
+				if(entries.isEmpty() && page > 0) {
+					showPage(state, page - 1);
+					return;
+				}
+				
+				render(state, entries);
+				state.prefetch(page);
+			} else {
+				// do not reuse the failed page
+				state.clearPrefetch();
+				Bukkit.getLogger().log(Level.WARNING, "Unable to load page " + page + " of paged gui", error);
+			}
+		}, MainThread.executor);
+	}
+
+	/**
+	 * Writes the entries of a page into the content slots of the open inventory
+	 * @param state the state of the viewer
+	 * @param entries the entries of the page
+	 */
+	private void render(ViewerState state, List<T> entries) {
+		Inventory top = state.view.getTopInventory();
+		state.items.clear();
+		state.lastPage = entries.size() < contentSlots.length;
+
+		// run through content slots
+		for(int i = 0; i < contentSlots.length; i++) {
+			int slot = contentSlots[i];
+			ItemStack item = null;
+			if(i < entries.size()) {
+				try {
+					item = renderer.apply(entries.get(i));
+				} catch (RuntimeException e) {
+					Bukkit.getLogger().log(Level.WARNING, "Unable to render entry of paged gui", e);
+				}
+			}
+
+			// show frame if there is no entry
+			if(item != null) {
+				state.items.put(slot, item);
+				top.setItem(slot, item);
+			} else top.setItem(slot, design[slot]);
+		}
+	}
+
+	/**
+	 * Runs tasks on the main thread of the server
+	 * @author Timeout
+	 *
+	 */
+	private static final class MainThread {
+
+		private static final Executor executor = task -> {
+			if(Bukkit.isPrimaryThread()) {
+				task.run();
+			} else {
+				Plugin plugin = getPlugin();
+				if(plugin != null) {
+					Bukkit.getScheduler().runTask(plugin, task);
+				} else Bukkit.getLogger().log(Level.WARNING, "Unable to schedule paged gui task. The plugin of Libs is not enabled");
+			}
+		};
+
+		@Nullable
+		private static Plugin getPlugin() {
+			try {
+				Plugin plugin = JavaPlugin.getProvidingPlugin(PagedGUI.class);
+				return plugin.isEnabled() ? plugin : null;
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				Bukkit.getLogger().log(Level.FINE, "Unable to find plugin of paged gui", e);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * The page of a viewer with the loaded entries of the neighbouring pages
+	 * @author Timeout
+	 *
+	 */
+	private final class ViewerState {
+
+		private final InventoryView view;
+		private final Map<Integer, ItemStack> items = new HashMap<>();
+
+		private volatile int page;
+		private boolean lastPage;
+
+		private int loadedPage = -1;
+		private CompletableFuture<List<T>> previous;
+		private CompletableFuture<List<T>> current;
+		private CompletableFuture<List<T>> next;
+
+		private ViewerState(InventoryView view) {
+			this.view = view;
+		}
+
+		/**
+		 * Returns the entries of a page. Prefetched pages are reused
+		 * @param target the page
+		 * @return a future which completes with the entries
+		 */
+		private CompletableFuture<List<T>> fetch(int target) {
+			CompletableFuture<List<T>> result;
+			if(target == loadedPage && current != null) {
+				result = current;
+			} else if(target == loadedPage + 1 && next != null) {
+				// move window forward
+				result = next;
+				previous = current;
+				next = null;
+			} else if(target == loadedPage - 1 && previous != null) {
+				// move window backward
+				result = previous;
+				next = current;
+				previous = null;
+			} else {
+				// neighbours of another page are useless
+				previous = null;
+				next = null;
+				result = source.fetch(target * contentSlots.length, contentSlots.length);
+			}
+			
+			current = result;
+			loadedPage = target;
+			return result;
+		}
+		
+		/**
+		 * Loads the neighbouring pages of a page asynchronously
+		 * @param target the page which is shown
+		 */
+		private void prefetch(int target) {
+			if(target != loadedPage) return;
+			if(target > 0 && previous == null) previous = source.fetch((target - 1) * contentSlots.length, contentSlots.length);
+			if(!lastPage && next == null) next = source.fetch((target + 1) * contentSlots.length, contentSlots.length);
+		}
+
+		private void clearPrefetch() {
+			previous = null;
+			next = null;
+			current = null;
+			loadedPage = -1;
+		}
+
+		private boolean isLastPage() {
+			return lastPage;
+		}
+	}
+}
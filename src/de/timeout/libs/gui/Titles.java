@@ -1,74 +1,237 @@
 package de.timeout.libs.gui;
 
-import java.lang.reflect.Field;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import com.google.gson.JsonObject;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import de.timeout.libs.BukkitReflections;
+import de.timeout.libs.MethodInvoker;
 import de.timeout.libs.Players;
 import de.timeout.libs.Reflections;
+import de.timeout.libs.Warmup;
 import org.jetbrains.annotations.NotNull;
 
 public class Titles {
 	
-	private static final String SENDPACKET = "sendPacket";
+	/**
+	 * Coalescing key of action bars. Titles use their action as key
+	 */
+	private static final String ACTIONBAR_KEY = "Titles#ACTIONBAR";
+	private static final String TITLE_KEY = "Titles#TITLE";
+	private static final String SUBTITLE_KEY = "Titles#SUBTITLE";
+	private static final String TIMES_KEY = "Titles#TIMES";
 	
-	private static final Class<?> packetplayouttitleClass = BukkitReflections.getNMSClass("PacketPlayOutTitle");
-	private static final Class<?> entityplayerClass = BukkitReflections.getNMSClass("EntityPlayer");
-	private static final Class<?> enumtitleactionClass = Reflections.getSubClass(packetplayouttitleClass, "EnumTitleAction");
-	private static final Class<?> ichatbasecomponentClass = BukkitReflections.getNMSClass("IChatBaseComponent");
-	private static final Class<?> chatserializerClass = Reflections.getSubClass(ichatbasecomponentClass, "ChatSerializer");
-	private static final Class<?> packetClass = BukkitReflections.getNMSClass("Packet");
-	private static final Class<?> playerconnectionClass = BukkitReflections.getNMSClass("PlayerConnection");
-	private static final Class<?> packetplayoutchatClass = BukkitReflections.getNMSClass("PacketPlayOutChat");
-	
-	private static final @NotNull Field playerconnectionField = Objects.requireNotNull(Reflections.getField(entityplayerClass, "playerConnection"));
+	/**
+	 * The last fade values which were sent to a player. Entries are removed with their player
+	 */
+	private static final Cache<Player, TitleTimes> times = CacheBuilder.newBuilder().weakKeys().build();
 	
 	private Titles() {
 		/* EMPTY, cause Util-Class */
 	}
 	
+	/**
+	 * Handles of title and chat packets. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class Handles {
+		
+		private static final Class<?> packetplayouttitleClass = BukkitReflections.getNMSClass("PacketPlayOutTitle");
+		private static final Class<?> enumtitleactionClass = Reflections.getSubClass(packetplayouttitleClass, "EnumTitleAction");
+		private static final Class<?> ichatbasecomponentClass = BukkitReflections.getNMSClass("IChatBaseComponent");
+		private static final Class<?> packetplayoutchatClass = BukkitReflections.getNMSClass("PacketPlayOutChat");
+		
+		private static final @NotNull Object title = actionConstant("TITLE");
+		private static final @NotNull Object subtitle = actionConstant("SUBTITLE");
+		private static final @NotNull Object times = actionConstant("TIMES");
+		
+		private static final @NotNull MethodInvoker titleConstructor = Objects.requireNonNull(MethodInvoker.ofConstructor(packetplayouttitleClass,
+				enumtitleactionClass, ichatbasecomponentClass, int.class, int.class, int.class));
+		private static final @NotNull MethodInvoker chatConstructor = Objects.requireNonNull(MethodInvoker.ofConstructor(packetplayoutchatClass,
+				ichatbasecomponentClass, byte.class));
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static Object actionConstant(String name) {
+			return Enum.valueOf((Class) Objects.requireNonNull(enumtitleactionClass), name);
+		}
+	}
+	
 	public static void sendTitle(Player p, String msg, int fadein, int stay, int fadeout) {
-		sendTitlePacket(p, msg, "TITLE", fadein, stay, fadeout);
+		try {
+			// send fade values before the title
+			sendTimes(p, fadein, stay, fadeout);
+			// Send packet at the next tick. Replaces a waiting title
+			Players.queuePacket(p, TITLE_KEY, createTitlePacket(Handles.title, msg));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
+			Bukkit.getLogger().log(Level.SEVERE, "Cannot send Packet", e);
+		}
 	}
 	
 	public static void sendSubTitle(Player p, String msg, int fadein, int stay, int fadeout) {
-		sendTitlePacket(p, msg, "SUBTITLE", fadein, stay, fadeout);
+		try {
+			// send fade values before the subtitle
+			sendTimes(p, fadein, stay, fadeout);
+			// Send packet at the next tick. Replaces a waiting subtitle
+			Players.queuePacket(p, SUBTITLE_KEY, createTitlePacket(Handles.subtitle, msg));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
+			Bukkit.getLogger().log(Level.SEVERE, "Cannot send Packet", e);
+		}
 	}
 	
-	private static void sendTitlePacket(Player p, String msg, String type, int fadein, int stay, int fadeout) {
+	public static void sendActionBar(Player p, String msg) {
 		try {
-			// Define Packet
-			Object packet = packetplayouttitleClass.getConstructor(enumtitleactionClass, ichatbasecomponentClass, int.class, int.class, int.class)
-					.newInstance(Objects.requireNotNull(enumtitleactionClass).getField(type).get(enumtitleactionClass),
-							Objects.requireNotNull(chatserializerClass).getMethod("a", String.class).invoke(chatserializerClass, createJsonObject(msg)), fadein, stay, fadeout);
-			// Send packet
-			playerconnectionClass.getMethod(SENDPACKET, packetClass).invoke(Reflections.getValue(playerconnectionField, Players.getEntityPlayer(p)), packet);
-		} catch (IllegalArgumentException | SecurityException | ReflectiveOperationException e) {
+			// Send packet at the next tick. Replaces a waiting action bar
+			Players.queuePacket(p, ACTIONBAR_KEY, createActionBarPacket(msg));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
+			Bukkit.getLogger().log(Level.SEVERE, "Cannot send ActionBar", e);
+		}
+	}
+	
+	/**
+	 * Sends a title which is rendered from a template for this player. Only the placeholders are serialized for every player
+	 * @param p the player
+	 * @param template the template of the title
+	 * @param values the function which returns the value of a placeholder for this player
+	 * @param fadein the fade in time in ticks
+	 * @param stay the stay time in ticks
+	 * @param fadeout the fade out time in ticks
+	 */
+	public static void sendTitle(Player p, MessageTemplate template, Function<? super String, ?> values, int fadein, int stay, int fadeout) {
+		try {
+			// send fade values before the title
+			sendTimes(p, fadein, stay, fadeout);
+			// Send packet at the next tick. Replaces a waiting title
+			Players.queuePacket(p, TITLE_KEY, createTitlePacket(Handles.title, ComponentCache.getDefault().getComponent(template, values)));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
 			Bukkit.getLogger().log(Level.SEVERE, "Cannot send Packet", e);
 		}
-
 	}
 	
-	public static void sendActionBar(Player p, String msg) {
+	/**
+	 * Sends a subtitle which is rendered from a template for this player. Only the placeholders are serialized for every player
+	 * @param p the player
+	 * @param template the template of the subtitle
+	 * @param values the function which returns the value of a placeholder for this player
+	 * @param fadein the fade in time in ticks
+	 * @param stay the stay time in ticks
+	 * @param fadeout the fade out time in ticks
+	 */
+	public static void sendSubTitle(Player p, MessageTemplate template, Function<? super String, ?> values, int fadein, int stay, int fadeout) {
 		try {
-			Object cbc = Objects.requireNotNull(chatserializerClass).getMethod("a", String.class).invoke(chatserializerClass, createJsonObject(msg));
-			Object packet = packetplayoutchatClass.getConstructor(ichatbasecomponentClass, byte.class).newInstance(cbc, (byte) 2);
-			// Send Packet
-			playerconnectionClass.getMethod(SENDPACKET, packetClass).invoke(Reflections.getValue(playerconnectionField, Players.getEntityPlayer(p)), packet);
-		} catch (IllegalArgumentException | SecurityException | ReflectiveOperationException e) {
+			// send fade values before the subtitle
+			sendTimes(p, fadein, stay, fadeout);
+			// Send packet at the next tick. Replaces a waiting subtitle
+			Players.queuePacket(p, SUBTITLE_KEY, createTitlePacket(Handles.subtitle, ComponentCache.getDefault().getComponent(template, values)));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
+			Bukkit.getLogger().log(Level.SEVERE, "Cannot send Packet", e);
+		}
+	}
+	
+	/**
+	 * Sends an action bar which is rendered from a template for this player. Only the placeholders are serialized for every player
+	 * @param p the player
+	 * @param template the template of the action bar
+	 * @param values the function which returns the value of a placeholder for this player
+	 */
+	public static void sendActionBar(Player p, MessageTemplate template, Function<? super String, ?> values) {
+		try {
+			// Send packet at the next tick. Replaces a waiting action bar
+			Players.queuePacket(p, ACTIONBAR_KEY, createActionBarPacket(ComponentCache.getDefault().getComponent(template, values)));
+		} catch (IllegalArgumentException | ReflectiveOperationException e) {
 			Bukkit.getLogger().log(Level.SEVERE, "Cannot send ActionBar", e);
 		}
 	}
 	
-	private static String createJsonObject(String msg) {
-		JsonObject obj = new JsonObject();
-		obj.addProperty("text", msg);
-		return obj.toString();
+	/**
+	 * Forgets the fade values which were sent to a player, so the next title sends them again.
+	 * Call this method if the title times of the player were changed without this class
+	 * @param p the player
+	 */
+	public static void resetTimes(@NotNull Player p) {
+		times.invalidate(p);
+	}
+	
+	/**
+	 * Queues a times packet if the fade values differ from the last values of the player.
+	 * The client keeps its fade values until it changes its world, so they are sent again after a world change
+	 * @param p the player
+	 * @param fadein the fade in time in ticks
+	 * @param stay the stay time in ticks
+	 * @param fadeout the fade out time in ticks
+	 * @throws ReflectiveOperationException if the packet could not be created
+	 */
+	private static void sendTimes(Player p, int fadein, int stay, int fadeout) throws ReflectiveOperationException {
+		TitleTimes current = new TitleTimes(p.getWorld().getUID(), fadein, stay, fadeout);
+		// ignore unchanged values
+		if(!current.equals(times.getIfPresent(p))) {
+			Players.queuePacket(p, TIMES_KEY, createTimesPacket(fadein, stay, fadeout));
+			times.put(p, current);
+		}
+	}
+	
+	@NotNull
+	static Object createTitlePacket(@NotNull Object action, @NotNull String msg) throws ReflectiveOperationException {
+		return createTitlePacket(action, ComponentCache.getDefault().getComponent(msg));
+	}
+	
+	@NotNull
+	static Object createTitlePacket(@NotNull Object action, @NotNull Object component) throws ReflectiveOperationException {
+		// fade values are only read by times packets
+		return Handles.titleConstructor.newInstance(action, component, -1, -1, -1);
+	}
+	
+	@NotNull
+	static Object createTimesPacket(int fadein, int stay, int fadeout) throws ReflectiveOperationException {
+		return Handles.titleConstructor.newInstance(Handles.times, null, fadein, stay, fadeout);
+	}
+	
+	@NotNull
+	static Object createActionBarPacket(@NotNull String msg) throws ReflectiveOperationException {
+		return createActionBarPacket(ComponentCache.getDefault().getComponent(msg));
+	}
+	
+	@NotNull
+	static Object createActionBarPacket(@NotNull Object component) throws ReflectiveOperationException {
+		return Handles.chatConstructor.newInstance(component, (byte) 2);
+	}
+	
+	/**
+	 * The fade values of a player in a certain world
+	 * @author Timeout
+	 *
+	 */
+	private static final class TitleTimes {
+		
+		private final UUID world;
+		private final int fadein;
+		private final int stay;
+		private final int fadeout;
+		
+		private TitleTimes(UUID world, int fadein, int stay, int fadeout) {
+			this.world = world;
+			this.fadein = fadein;
+			this.stay = stay;
+			this.fadeout = fadeout;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(world, fadein, stay, fadeout);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof TitleTimes)) return false;
+			
+			TitleTimes other = (TitleTimes) obj;
+			return fadein == other.fadein && stay == other.stay && fadeout == other.fadeout && world.equals(other.world);
+		}
 	}
 }
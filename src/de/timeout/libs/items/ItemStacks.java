@@ -4,7 +4,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Objects;
@@ -25,7 +24,9 @@ import com.google.gson.JsonParser;
 import com.google.gson.internal.bind.JsonTreeReader;
 
 import de.timeout.libs.BukkitReflections;
-import de.timeout.libs.Reflections;
+import de.timeout.libs.FieldAccessor;
+import de.timeout.libs.MethodInvoker;
+import de.timeout.libs.Warmup;
 
 
 /**
@@ -36,22 +37,6 @@ import de.timeout.libs.Reflections;
  */
 public final class ItemStacks {
 	
-	private static final Class<?> itemClass = BukkitReflections.getNMSClass("Item");
-	private static final Class<?> itemstackClass = BukkitReflections.getNMSClass("ItemStack");
-	private static final Class<?> craftitemstackClass = BukkitReflections.getCraftBukkitClass("inventory.CraftItemStack");
-	private static final Class<?> nbttagcompoundClass = BukkitReflections.getNMSClass("NBTTagCompound");
-	private static final Class<?> localelanguageClass = BukkitReflections.getNMSClass("LocaleLanguage");
-	
-	private static final @NotNull Method AS_NMS_COPY = Objects.requireNonNull(Reflections.getMethod(craftitemstackClass, "asNMSCopy"));
-	private static final @NotNull Method HAS_TAG = Objects.requireNonNull(Reflections.getMethod(itemstackClass, "hasTag"));
-	private static final @NotNull Method HAS_KEY = Objects.requireNonNull(Reflections.getMethod(nbttagcompoundClass, "hasKey", String.class));
-	private static final @NotNull Method GET_TAG = Objects.requireNonNull(Reflections.getMethod(nbttagcompoundClass, "getTag", String.class));
-	private static final @NotNull Method A = Objects.requireNonNull(Reflections.getMethod(localelanguageClass, "a", String.class));
-	private static final @NotNull Method GET_NAME = Objects.requireNonNull(Reflections.getMethod(itemClass, "getName"));
-	private static final @NotNull Method GET_ITEM = Objects.requireNonNull(Reflections.getMethod(itemstackClass, "getItem"));
-	
-	private static final @NotNull Object LOCALE_LANGUAGE = Objects.requireNonNull(Reflections.getValue(Objects.requireNonNull(Reflections.getField(localelanguageClass, "d")), localelanguageClass));
-	
 	private static final String ERROR_NO_NBT_TAG = "ItemStack has no NBT-Tag";
 	private static final String ERROR_FAILED_GET_NBT_TAG = "Cannot get NMS-Copy of item ";
 	
@@ -61,6 +46,45 @@ public final class ItemStacks {
 		// No need for Util-Class to create an Object
 	}
 	
+	/**
+	 * Handles to copy ItemStacks between Bukkit and NMS. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class CopyHandles {
+		
+		private static final Class<?> itemstackClass = BukkitReflections.getNMSClass("ItemStack");
+		private static final Class<?> craftitemstackClass = BukkitReflections.getCraftBukkitClass("inventory.CraftItemStack");
+		
+		private static final @NotNull MethodInvoker AS_NMS_COPY = Objects.requireNonNull(MethodInvoker.of(craftitemstackClass, "asNMSCopy", ItemStack.class));
+		private static final @NotNull MethodInvoker AS_BUKKIT_COPY = Objects.requireNonNull(MethodInvoker.of(craftitemstackClass, "asBukkitCopy", itemstackClass));
+		private static final @NotNull MethodInvoker GET_ITEM = Objects.requireNonNull(MethodInvoker.of(itemstackClass, "getItem"));
+	}
+	
+	/**
+	 * Handles to read NBT-Tags. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class TagHandles {
+		
+		private static final Class<?> itemstackClass = BukkitReflections.getNMSClass("ItemStack");
+		private static final Class<?> nbttagcompoundClass = BukkitReflections.getNMSClass("NBTTagCompound");
+		
+		private static final @NotNull MethodInvoker HAS_TAG = Objects.requireNonNull(MethodInvoker.of(itemstackClass, "hasTag"));
+		private static final @NotNull MethodInvoker GET_TAG = Objects.requireNonNull(MethodInvoker.of(itemstackClass, "getTag"));
+		private static final @NotNull MethodInvoker HAS_KEY = Objects.requireNonNull(MethodInvoker.of(nbttagcompoundClass, "hasKey", String.class));
+	}
+	
+	/**
+	 * Handles to translate the names of items. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class NameHandles {
+		
+		private static final Class<?> itemClass = BukkitReflections.getNMSClass("Item");
+		
+		private static final @NotNull MethodInvoker A = MethodInvoker.of(Objects.requireNonNull(BukkitReflections.getMethod("LocaleLanguage", "translate", String.class)));
+		private static final @NotNull MethodInvoker GET_NAME = Objects.requireNonNull(MethodInvoker.of(itemClass, "getName"));
+		
+		private static final @NotNull Object LOCALE_LANGUAGE = Objects.requireNonNull(FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("LocaleLanguage", "instance"))).get(null));
+	}
+	
 	/**
 	 * Encode item stack.
 	 *
@@ -132,8 +156,8 @@ public final class ItemStacks {
 		// only continue if the item could be found
 		if(nmsItem != null) {
 			try {
-				return (String) A.invoke(LOCALE_LANGUAGE, GET_NAME.invoke(nmsItem));
-			} catch (IllegalAccessException | InvocationTargetException e) {
+				return (String) NameHandles.A.invoke(NameHandles.LOCALE_LANGUAGE, NameHandles.GET_NAME.invoke(nmsItem));
+			} catch (InvocationTargetException e) {
 				Bukkit.getLogger().log(Level.WARNING, "Unable to get name of itemstack. Continue with normal name");
 			}
 		}
@@ -150,15 +174,9 @@ public final class ItemStacks {
 	@Nullable
 	public static Object asNMSCopy(ItemStack item) {
 		try {
-			return AS_NMS_COPY.invoke(craftitemstackClass, item);
-		} catch (IllegalAccessException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Unable to create NMS-Copy of an itemstack: ", e);
-		} catch (IllegalArgumentException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Invalid argument format: ", e);
+			return CopyHandles.AS_NMS_COPY.invoke(null, item);
 		} catch (InvocationTargetException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Invocated target: ", e);
-		} catch (SecurityException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Security error while accessing with reflections: ", e);
+			Bukkit.getLogger().log(Level.WARNING, "Unable to create NMS-Copy of an itemstack: ", e);
 		}
 		
 		return null;
@@ -168,9 +186,7 @@ public final class ItemStacks {
 	public static Object getNMSItem(ItemStack item) {
 		// get nms item
 		try {
-			return GET_ITEM.invoke(asNMSCopy(item));
-		} catch (IllegalAccessException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Unable to access ItemStack#getItem in NMS ItemStack", e);
+			return CopyHandles.GET_ITEM.invoke(asNMSCopy(item));
 		} catch (InvocationTargetException e) {
 			Bukkit.getLogger().log(Level.WARNING, "Unable to access ItemStack#getItem. No such target", e);
 		}
@@ -181,17 +197,9 @@ public final class ItemStacks {
 	@Nullable
 	public static ItemStack asBukkitCopy(Object nmsItem) {
 		try {
-			return (ItemStack) craftitemstackClass.getMethod("asBukkitCopy", itemstackClass).invoke(craftitemstackClass, nmsItem);
-		} catch (IllegalAccessException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Unable to create Bukkit-Copy of an itemstack: ", e);
-		} catch (IllegalArgumentException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Invalid argument format: ", e);
+			return (ItemStack) CopyHandles.AS_BUKKIT_COPY.invoke(null, nmsItem);
 		} catch (InvocationTargetException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Invocated target: ", e);
-		} catch (NoSuchMethodException e) {
-			Bukkit.getLogger().log(Level.WARNING, "Method does not exist: ", e);
-		} catch (SecurityException e) {
-			Bukkit.getLogger().log(Level.SEVERE, "Security error while accessing with reflections: ", e);
+			Bukkit.getLogger().log(Level.WARNING, "Unable to create Bukkit-Copy of an itemstack: ", e);
 		}
 		
 		return null;
@@ -204,8 +212,8 @@ public final class ItemStacks {
 		
 		// return null if itemstack is null
 		try {
-			return (boolean) HAS_TAG.invoke(nms) ? GET_TAG.invoke(nms) : null;
-		} catch (IllegalAccessException | InvocationTargetException | SecurityException e) {
+			return (boolean) TagHandles.HAS_TAG.invoke(nms) ? TagHandles.GET_TAG.invoke(nms) : null;
+		} catch (InvocationTargetException e) {
 			Bukkit.getLogger().log(Level.WARNING, "Unable to check up NBT-TagCompound", e);
 		}
 		
@@ -220,8 +228,8 @@ public final class ItemStacks {
 		if(compound != null) {
 			try {		
 				// return if key exist
-				return (boolean) HAS_KEY.invoke(compound, key);
-			} catch (IllegalAccessException | InvocationTargetException e) {
+				return (boolean) TagHandles.HAS_KEY.invoke(compound, key);
+			} catch (InvocationTargetException e) {
 				Bukkit.getLogger().log(Level.SEVERE, e, () -> ERROR_FAILED_GET_NBT_TAG + key);
 			}
 		}
@@ -270,13 +278,13 @@ public final class ItemStacks {
 		
 		try {
 			// validate
-			Validate.isTrue((boolean) HAS_TAG.invoke(nms), ERROR_NO_NBT_TAG);
+			Validate.isTrue((boolean) TagHandles.HAS_TAG.invoke(nms), ERROR_NO_NBT_TAG);
 			// get compound
-			Object compound = GET_TAG.invoke(nms);
+			Object compound = TagHandles.GET_TAG.invoke(nms);
 			
 			// return value
-			return nbttagcompoundClass.getMethod(methodName, String.class).invoke(compound, key);
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+			return Objects.requireNonNull(MethodInvoker.of(TagHandles.nbttagcompoundClass, methodName, String.class)).invoke(compound, key);
+		} catch (InvocationTargetException e) {
 			Bukkit.getLogger().log(Level.SEVERE, () -> ERROR_FAILED_GET_NBT_TAG + key);
 		}
 		
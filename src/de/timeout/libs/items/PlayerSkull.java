@@ -25,6 +25,7 @@ import com.mojang.authlib.properties.Property;
 
 import de.timeout.libs.BukkitReflections;
 import de.timeout.libs.Reflections;
+import de.timeout.libs.Warmup;
 import de.timeout.libs.profiles.GameProfileFetcher;
 import net.md_5.bungee.api.ChatColor;
 import org.jetbrains.annotations.NotNull;
@@ -37,12 +38,6 @@ import org.jetbrains.annotations.Nullable;
  */
 public class PlayerSkull extends ItemStack {
 	
-	private static final Class<?> craftmetaskullClass = BukkitReflections.getCraftBukkitClass("inventory.CraftMetaSkull");
-	private static final Class<?> craftskullClass = BukkitReflections.getCraftBukkitClass("block.CraftSkull");
-	
-	private static final @NotNull Field metaProfileField = Objects.requireNotNull(Reflections.getField(craftmetaskullClass, "profile"));
-	private static final @NotNull Field skullProfileField = Objects.requireNotNull(Reflections.getField(craftskullClass, "profile"));
-	
 	private static final Base64 base64 = new Base64();
 	
 	public static final ItemStack SKELETON = new ItemStack(Material.SKELETON_SKULL);
@@ -54,6 +49,22 @@ public class PlayerSkull extends ItemStack {
 	
 	private final GameProfile profile;
 	
+	/**
+	 * Handles of the profile in skull metas. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class MetaHandles {
+		
+		private static final @NotNull Field metaProfileField = Objects.requireNonNull(BukkitReflections.getField("inventory.CraftMetaSkull", "profile"));
+	}
+	
+	/**
+	 * Handles of the profile in skull blocks. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class BlockHandles {
+		
+		private static final @NotNull Field skullProfileField = Objects.requireNonNull(BukkitReflections.getField("block.CraftSkull", "profile"));
+	}
+	
 	/**
 	 * This Constructor creates a new Skull-ItemStack.
 	 * @param displayname the displayname of this itemstack
@@ -72,7 +83,7 @@ public class PlayerSkull extends ItemStack {
 		profile = request.get(5, TimeUnit.SECONDS);
 		// Override profile field
 		ItemMeta meta = getItemMeta();
-		Reflections.setField(metaProfileField, meta, profile);
+		Reflections.setValue(MetaHandles.metaProfileField, meta, profile);
 		setItemMeta(meta);
 	}
 
@@ -107,7 +118,7 @@ public class PlayerSkull extends ItemStack {
         ItemStack skull = new ItemStackBuilder(STEVE).toItemStack();
         ItemMeta meta = Objects.requireNotNull(skull.getItemMeta());
         // write Profile in ItemMeta
-		Reflections.setField(metaProfileField, meta, profile);
+		Reflections.setValue(MetaHandles.metaProfileField, meta, profile);
 		// set meta in skull
 		skull.setItemMeta(meta);
 		// return skull
@@ -159,7 +170,7 @@ public class PlayerSkull extends ItemStack {
 		// cast to Skull
 		Skull skull = (Skull) block.getState();
 		// insert profile in Skull
-		Reflections.setField(skullProfileField, skull, profile);
+		Reflections.setValue(BlockHandles.skullProfileField, skull, profile);
 		// update Block
 		skull.update();
 		// return block
@@ -1,7 +1,6 @@
 package de.timeout.libs.profiles;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -16,6 +15,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import com.google.common.cache.LoadingCache;
@@ -23,8 +23,9 @@ import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.yggdrasil.YggdrasilMinecraftSessionService;
 
 import de.timeout.libs.BukkitReflections;
+import de.timeout.libs.FieldAccessor;
 import de.timeout.libs.Players;
-import de.timeout.libs.Reflections;
+import de.timeout.libs.Warmup;
 
 /**
  * This class repesents a bridge to Mojangs SessionServers to fetch already existing GameProfiles
@@ -34,14 +35,20 @@ import de.timeout.libs.Reflections;
  */
 public class GameProfileFetcher implements Supplier<GameProfile> {
 			
-	private static final Class<?> tileentityskullClass = BukkitReflections.getNMSClass("TileEntitySkull");
-	
-	@SuppressWarnings("unchecked")
-	private static final LoadingCache<String, GameProfile> skinCache = (LoadingCache<String, GameProfile>) Reflections.getValue(Reflections.getField(tileentityskullClass, "skinCache"), tileentityskullClass);
-	private static final Executor executor = (Executor) Reflections.getValue(Reflections.getField(tileentityskullClass, "executor"), tileentityskullClass);
-	
 	private OfflinePlayer owner;
 	
+	/**
+	 * The skin cache of the server. Resolved on first use or by {@link Warmup}
+	 */
+	private static final class Handles {
+		
+		@SuppressWarnings("unchecked")
+		private static final LoadingCache<String, GameProfile> skinCache = (LoadingCache<String, GameProfile>) Objects.requireNonNull(
+				FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("TileEntitySkull", "skinCache"))).get(null));
+		private static final Executor executor = (Executor) Objects.requireNonNull(
+				FieldAccessor.of(Objects.requireNonNull(BukkitReflections.getField("TileEntitySkull", "executor"))).get(null));
+	}
+	
 	public GameProfileFetcher(@NotNull UUID owner) {
 		// Validate
 		Validate.notNull(owner, "Owner cannot be null");
@@ -51,30 +58,30 @@ public class GameProfileFetcher implements Supplier<GameProfile> {
 
 	@Override
 	public GameProfile get() {
+		// get GameProfile from owner if online. Cached by Players
+		Player player = owner.getPlayer();
+		if(player != null) return Players.getGameProfile(player);
+		
 		// get Profile from cache
 		GameProfile localProfile = lookUpGameProfileFromCache();
 		// if GameProfile is not in cache
 		if(localProfile == null) {
-			// if owner is not online
-			if(!owner.isOnline()) {
-				// get GameProfile from other thread
-				CompletableFuture<GameProfile> future = CompletableFuture.supplyAsync(() -> 
-					// load and return from cache
-					skinCache.getUnchecked(owner.getName())
-				, executor);
-				// return value
-				try {
-					return future.get(5, TimeUnit.SECONDS);
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					Bukkit.getLogger().log(Level.SEVERE, "Fatal error by look up GameProfile of " + owner.getName() + ". Thread interrupted", e);
-				} catch (ExecutionException e) {
-					Bukkit.getLogger().log(Level.WARNING, "Unchecked exception while reading GameProfile of " + owner.getName(), e);
-				} catch (TimeoutException e) {
-					Bukkit.getLogger().log(Level.WARNING, "Unable to get GameProfile of " + owner.getName() + ". Connection timed out...");
-				}
-			// get GameProfile from owner
-			} else localProfile = Players.getGameProfile(owner.getPlayer());
+			// get GameProfile from other thread
+			CompletableFuture<GameProfile> future = CompletableFuture.supplyAsync(() -> 
+				// load and return from cache
+				Handles.skinCache.getUnchecked(owner.getName())
+			, Handles.executor);
+			// return value
+			try {
+				return future.get(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				Bukkit.getLogger().log(Level.SEVERE, "Fatal error by look up GameProfile of " + owner.getName() + ". Thread interrupted", e);
+			} catch (ExecutionException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Unchecked exception while reading GameProfile of " + owner.getName(), e);
+			} catch (TimeoutException e) {
+				Bukkit.getLogger().log(Level.WARNING, "Unable to get GameProfile of " + owner.getName() + ". Connection timed out...");
+			}
 		}
 		// return profile
 		return localProfile;
@@ -86,9 +93,7 @@ public class GameProfileFetcher implements Supplier<GameProfile> {
 	 */
 	@Nullable
 	private GameProfile lookUpGameProfileFromCache() {
-		// create current local copy of cache
-		Map<String, GameProfile> profile = new HashMap<>(skinCache.asMap());
-		// return value from map
-		return profile.get(owner.getName());
+		// read cache without loading
+		return Handles.skinCache.getIfPresent(owner.getName());
 	}
 }